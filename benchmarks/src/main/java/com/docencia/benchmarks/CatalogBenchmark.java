@@ -0,0 +1,107 @@
+package com.docencia.benchmarks;
+
+import com.docencia.tutorial05.cache.RenderedPageCache;
+import com.docencia.tutorial05.controllers.ProductController;
+import com.docencia.tutorial05.models.Product;
+import com.docencia.tutorial05.repositories.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@link ProductController}: product page, listings (keyset, offset, price filter)
+ * and search. Each call gets a fresh model, as a request would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({"1000", "100000"})
+    int catalogSize;
+
+    private ProductController controller;
+    private long[] ids;
+    private String middleCursor;
+    private int middlePage;
+
+    @Setup
+    public void setUp() {
+        ProductRepository repository = CatalogFixture.repository(catalogSize);
+        controller = new ProductController(repository, new RenderedPageCache(512, 262144));
+        ids = repository.findAll().stream().mapToLong(Product::getId).toArray();
+        middlePage = ids.length / 24;
+        // Follow the "next" links from the first page, so the keyset benchmark lands on the same page
+        // as the offset one with the cursor a client would actually send
+        String cursor = null;
+        for (int page = 1; page < middlePage; page++) {
+            cursor = nextCursor(cursor);
+        }
+        middleCursor = cursor;
+    }
+
+    private String nextCursor(String cursor) {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.index(null, null, null, null, cursor, 12, model);
+        String nextUrl = (String) model.get("nextUrl");
+        return UriComponentsBuilder.fromUriString(nextUrl).build().getQueryParams().getFirst("cursor");
+    }
+
+    @Benchmark
+    public ExtendedModelMap showProduct() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.show(Long.toString(ids[ThreadLocalRandom.current().nextInt(ids.length)]), model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap listFirstPage() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.index(null, null, null, null, null, 12, model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap listKeysetMiddle() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.index(null, null, null, null, middleCursor, 12, model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap listOffsetMiddle() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.index(null, null, null, middlePage, null, 12, model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap listPriceFiltered() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.index(100.0, 500.0, "price_desc", null, null, 12, model);
+        return model;
+    }
+
+    @Benchmark
+    public ExtendedModelMap search() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.search("product 42", model);
+        return model;
+    }
+}
@@ -0,0 +1,33 @@
+package com.docencia.benchmarks;
+
+import com.docencia.tutorial05.models.ProductDraft;
+import com.docencia.tutorial05.persistence.ProductJournal;
+import com.docencia.tutorial05.repositories.ProductRepository;
+import com.docencia.tutorial05.repositories.ProductSearchIndex;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the tutorial05 catalog without a Spring context: the repository is plain Java
+ * and the journal is left out, exactly as with app.catalog.persistence.enabled=false.
+ */
+final class CatalogFixture {
+
+    private CatalogFixture() {
+    }
+
+    static ProductRepository repository(int size) {
+        ProductRepository repository = new ProductRepository(new ProductSearchIndex(),
+                new StaticListableBeanFactory().getBeanProvider(ProductJournal.class));
+        Random random = new Random(42);
+        List<ProductDraft> drafts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            drafts.add(new ProductDraft("Product " + i, "Best product number " + i, 100 + random.nextInt(100_000)));
+        }
+        repository.saveAll(drafts);
+        return repository;
+    }
+}
@@ -0,0 +1,52 @@
+package com.docencia.benchmarks;
+
+import com.eafit.nutrition.model.Medicion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Medicion#calcularIMC()} over a rotating set of measurements, so the result
+ * cannot be constant-folded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImcBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private Medicion[] mediciones;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        mediciones = new Medicion[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            mediciones[i] = new Medicion(LocalDate.now(), 45 + random.nextDouble() * 80,
+                    145 + random.nextDouble() * 55, null, null);
+        }
+    }
+
+    @Benchmark
+    public Double calcularIMC() {
+        Medicion medicion = mediciones[next];
+        next = (next + 1) & (SIZE - 1);
+        return medicion.calcularIMC();
+    }
+}
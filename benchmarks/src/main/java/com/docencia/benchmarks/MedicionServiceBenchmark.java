@@ -0,0 +1,163 @@
+package com.docencia.benchmarks;
+
+import com.eafit.nutrition.NutritionApplication;
+import com.eafit.nutrition.dto.KeysetPage;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import com.eafit.nutrition.service.MedicionServiceConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and create paths of {@link MedicionServiceConstructor} against in-memory H2, with the
+ * application's own configuration (dev profile, second-level cache, JDBC batching).
+ * Everything runs in the same JVM as the benchmark, so the numbers include Hibernate and the
+ * JDBC driver but no network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MedicionServiceBenchmark {
+
+    @Param({"50", "500"})
+    int pacientes;
+
+    @Param("20")
+    int medicionesPorPaciente;
+
+    private ConfigurableApplicationContext context;
+    private MedicionServiceConstructor service;
+    private Long nutricionistaId;
+    private long[] pacienteIds;
+    private long[] medicionIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(NutritionApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments, so they take precedence over application-dev.properties
+                .run("--spring.config.location=" + nutritionConfigLocation(),
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.h2.console.enabled=false",
+                        "--spring.thymeleaf.check-template-location=false");
+        service = context.getBean(MedicionServiceConstructor.class);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // tutorial05 also ships an application.properties, and classpath:/application.properties resolves
+    // to whichever jar comes first. Point at the files inside the nutrition jar (or classes directory)
+    private static String nutritionConfigLocation() {
+        String origin = NutritionApplication.class.getProtectionDomain().getCodeSource().getLocation().toString();
+        String root = origin.endsWith("/") ? origin : "jar:" + origin + "!/";
+        return root + "application.properties," + root + "application-dev.properties";
+    }
+
+    private void seed() {
+        Nutricionista nutricionista = context.getBean(NutricionistaRepository.class)
+                .save(new Nutricionista("Ana", "Gómez", "LIC-BENCH", "ana.bench@nutrition.test"));
+        nutricionistaId = nutricionista.getId();
+
+        List<Paciente> nuevos = new ArrayList<>(pacientes);
+        for (int i = 0; i < pacientes; i++) {
+            Paciente paciente = new Paciente("Paciente" + i, "Benchmark", LocalDate.of(1990, 1, 1),
+                    "paciente" + i + "@nutrition.test");
+            paciente.setNutricionista(nutricionista);
+            nuevos.add(paciente);
+        }
+        pacienteIds = context.getBean(PacienteRepository.class).saveAll(nuevos).stream()
+                .mapToLong(Paciente::getId).toArray();
+
+        Random random = new Random(42);
+        List<MedicionLoteItem> items = new ArrayList<>(pacientes * medicionesPorPaciente);
+        for (long pacienteId : pacienteIds) {
+            for (int j = 0; j < medicionesPorPaciente; j++) {
+                items.add(new MedicionLoteItem(pacienteId, nutricionistaId, LocalDate.of(2024, 1, 1).plusDays(7L * j),
+                        50 + random.nextDouble() * 60, 150 + random.nextDouble() * 45, null, null, null));
+            }
+        }
+        service.createMediciones(items);
+
+        List<Long> ids = new ArrayList<>(items.size());
+        service.forEachResumen(medicion -> ids.add(medicion.id()));
+        medicionIds = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long randomMedicionId() {
+        return medicionIds[ThreadLocalRandom.current().nextInt(medicionIds.length)];
+    }
+
+    @Benchmark
+    public Optional<MedicionResumen> findResumenById() {
+        return service.findResumenById(randomMedicionId());
+    }
+
+    @Benchmark
+    public Optional<Medicion> findById() {
+        return service.findById(randomMedicionId());
+    }
+
+    @Benchmark
+    public Page<MedicionResumen> findPage() {
+        int pages = Math.max(1, medicionIds.length / 50);
+        return service.findPage(PageRequest.of(ThreadLocalRandom.current().nextInt(pages), 50, Sort.by("id")));
+    }
+
+    @Benchmark
+    public KeysetPage<MedicionResumen> findAfter() {
+        return service.findAfter(randomMedicionId(), 50);
+    }
+
+    @Benchmark
+    public List<MedicionResumen> findUltimasPorNutricionista() {
+        return service.findUltimasPorNutricionista(nutricionistaId);
+    }
+
+    @Benchmark
+    public Medicion createMedicion() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long pacienteId = pacienteIds[random.nextInt(pacienteIds.length)];
+        Medicion medicion = new Medicion(LocalDate.now(), 50 + random.nextDouble() * 60,
+                150 + random.nextDouble() * 45, null, null);
+        return service.createMedicion(pacienteId, nutricionistaId, medicion);
+    }
+}
@@ -0,0 +1,51 @@
+package com.docencia.benchmarks;
+
+import com.docencia.tutorial05.cache.RenderedPageCache;
+import com.docencia.tutorial05.controllers.ProductController;
+import com.docencia.tutorial05.controllers.ProductForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductController#save}: repository insert, search indexing and page cache invalidation.
+ * The catalog grows with every call, so it is rebuilt before each iteration and iterations are short.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSaveBenchmark {
+
+    private ProductController controller;
+    private ProductForm form;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        controller = new ProductController(CatalogFixture.repository(1000), new RenderedPageCache(512, 262144));
+        form = new ProductForm();
+        form.setName("Benchmark product");
+        form.setPrice(199.99);
+    }
+
+    @Benchmark
+    public ExtendedModelMap save() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        controller.save(form, new BeanPropertyBindingResult(form, "productForm"), model);
+        return model;
+    }
+}
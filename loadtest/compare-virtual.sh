@@ -0,0 +1,14 @@
+#!/usr/bin/env sh
+# Runs the same load against both applications with platform threads and then with virtual
+# threads (profile "virtual"), and prints the two runs side by side. Both runs use the "pool" profile,
+# so the thread model is the only setting that changes.
+# Workload options are passed through, e.g.: ./loadtest/compare-virtual.sh -Dclients=256 -Drate=1000
+set -e
+cd "$(dirname "$0")/.."
+
+mvn -q -f tutorial05/pom.xml package -DskipTests
+mvn -q -f tutorial006/pom.xml package -DskipTests
+
+mvn -q -f loadtest/pom.xml compile exec:java -Dlabel=platform -DappArgs=--spring.profiles.include=pool "$@"
+mvn -q -f loadtest/pom.xml exec:java -Dlabel=virtual -DappArgs=--spring.profiles.include=pool,virtual "$@"
+mvn -q -f loadtest/pom.xml exec:java@compare -Dbaseline=platform -Dcandidate=virtual
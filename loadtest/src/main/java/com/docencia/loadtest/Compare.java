@@ -0,0 +1,79 @@
+package com.docencia.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Prints two labelled runs side by side, per application, mode and endpoint:
+ * <pre>
+ * baseline   label of the reference run   (platform)
+ * candidate  label of the compared run    (virtual)
+ * </pre>
+ * Both runs must have been made with the same workload options for the numbers to be comparable.
+ */
+public final class Compare {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Compare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(System.getProperty("loadtest.root", "..")).toAbsolutePath().normalize();
+        Path reportDir = root.resolve("loadtest/target/loadtest");
+        String baseline = System.getProperty("baseline", "platform");
+        String candidate = System.getProperty("candidate", "virtual");
+
+        int compared = 0;
+        for (String app : List.of("catalog", "nutrition")) {
+            for (String mode : List.of("closed", "open")) {
+                Path base = reportDir.resolve(app + "-" + mode + "-" + baseline + ".json");
+                Path other = reportDir.resolve(app + "-" + mode + "-" + candidate + ".json");
+                if (Files.exists(base) && Files.exists(other)) {
+                    print(MAPPER.readValue(base.toFile(), Report.class),
+                            MAPPER.readValue(other.toFile(), Report.class), System.out);
+                    compared++;
+                }
+            }
+        }
+        if (compared == 0) {
+            throw new IllegalStateException("No pair of " + baseline + "/" + candidate + " reports in " + reportDir);
+        }
+    }
+
+    private static void print(Report base, Report other, PrintStream out) {
+        out.printf("%n== %s / %s: %s -> %s%n", base.app(), base.mode(), base.label(), other.label());
+        out.printf("%-48s %19s %15s %19s %19s%n", "endpoint", "req/s", "err%", "p50 ms", "p99 ms");
+        Map<String, Report.EndpointReport> others = other.endpoints().stream()
+                .collect(Collectors.toMap(Report.EndpointReport::endpoint, Function.identity()));
+        List<Report.EndpointReport[]> rows = new ArrayList<>();
+        for (Report.EndpointReport row : base.endpoints()) {
+            if (others.containsKey(row.endpoint())) {
+                rows.add(new Report.EndpointReport[]{row, others.get(row.endpoint())});
+            }
+        }
+        rows.add(new Report.EndpointReport[]{base.total(), other.total()});
+        for (Report.EndpointReport[] row : rows) {
+            out.printf("%-48s %19s %15s %19s %19s%n", row[0].endpoint(),
+                    pair(row[0].throughputPerSecond(), row[1].throughputPerSecond()),
+                    String.format("%.2f -> %.2f", row[0].errorRate() * 100, row[1].errorRate() * 100),
+                    pair(row[0].latencyMillis().get("p50"), row[1].latencyMillis().get("p50")),
+                    pair(row[0].latencyMillis().get("p99"), row[1].latencyMillis().get("p99")));
+        }
+    }
+
+    // "12.3 -> 10.1 (-18%)"
+    private static String pair(double base, double other) {
+        String change = base > 0 ? String.format(" (%+.0f%%)", (other - base) / base * 100) : "";
+        return String.format("%.1f -> %.1f%s", base, other, change);
+    }
+}
@@ -0,0 +1,11 @@
+package com.docencia.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * A request template of a workload. {@code weight} is its share of the request mix.
+ */
+record Endpoint(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+}
@@ -0,0 +1,108 @@
+package com.docencia.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts each application from its executable jar on a free local port, seeds it and drives
+ * closed-loop and/or open-loop workloads against it. Configuration comes from system properties:
+ * <pre>
+ * app        catalog | nutrition | all          (all)
+ * mode       closed | open | both               (both)
+ * clients    concurrent clients, closed loop    (32)
+ * rate       requests per second, open loop     (200)
+ * maxInFlight open loop cap; later arrivals are dropped and counted as errors (2000)
+ * duration   measured time per run, ISO-8601    (PT30S)
+ * warmup     unmeasured time before each run    (PT10S)
+ * jvmArgs    JVM options of the application     (-Xmx1g)
+ * appArgs    extra application arguments, e.g. --spring.threads.virtual.enabled=true
+ * label      name of the run in the report file (default)
+ * </pre>
+ * Reports go to loadtest/target/loadtest.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path root = Path.of(System.getProperty("loadtest.root", "..")).toAbsolutePath().normalize();
+        String app = System.getProperty("app", "all");
+        String mode = System.getProperty("mode", "both");
+        int clients = Integer.getInteger("clients", 32);
+        double rate = Double.parseDouble(System.getProperty("rate", "200"));
+        int maxInFlight = Integer.getInteger("maxInFlight", 2000);
+        Duration duration = Duration.parse(System.getProperty("duration", "PT30S"));
+        Duration warmup = Duration.parse(System.getProperty("warmup", "PT10S"));
+        List<String> jvmArgs = split(System.getProperty("jvmArgs", "-Xmx1g"));
+        List<String> extraAppArgs = split(System.getProperty("appArgs", ""));
+        String label = System.getProperty("label", "default");
+        Path reportDir = root.resolve("loadtest/target/loadtest");
+
+        List<Scenario> scenarios = new ArrayList<>();
+        if (app.equals("all") || app.equals("catalog")) {
+            scenarios.add(new Scenario.Catalog(Path.of(System.getProperty("catalog.jar",
+                    root.resolve("tutorial05/target/tutorial05-0.0.1-SNAPSHOT-exec.jar").toString()))));
+        }
+        if (app.equals("all") || app.equals("nutrition")) {
+            scenarios.add(new Scenario.Nutrition(Path.of(System.getProperty("nutrition.jar",
+                    root.resolve("tutorial006/target/nutrition-0.0.1-SNAPSHOT-exec.jar").toString()))));
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("app must be catalog, nutrition or all");
+        }
+
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .executor(httpExecutor)
+                     .build()) {
+            for (Scenario scenario : scenarios) {
+                List<String> appArgs = new ArrayList<>(scenario.appArgs(reportDir));
+                appArgs.addAll(extraAppArgs);
+                try (AppProcess process = AppProcess.start(scenario.jar, jvmArgs, appArgs, scenario.readinessPath(),
+                        reportDir.resolve(scenario.name + "-" + label + ".log"), client)) {
+                    Workload workload = new Workload(client, scenario.prepare(process, client));
+
+                    if (mode.equals("both") || mode.equals("closed")) {
+                        workload.closedLoop(workload.newStats(), clients, warmup);
+                        Map<String, EndpointStats> stats = workload.newStats();
+                        long start = System.nanoTime();
+                        workload.closedLoop(stats, clients, duration);
+                        finish(Report.of(scenario.name, "closed", label, clients, null, seconds(start), stats),
+                                stats, reportDir);
+                    }
+                    if (mode.equals("both") || mode.equals("open")) {
+                        workload.openLoop(workload.newStats(), rate, maxInFlight, warmup);
+                        Map<String, EndpointStats> stats = workload.newStats();
+                        long start = System.nanoTime();
+                        workload.openLoop(stats, rate, maxInFlight, duration);
+                        finish(Report.of(scenario.name, "open", label, 0, rate, seconds(start), stats),
+                                stats, reportDir);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void finish(Report report, Map<String, EndpointStats> stats, Path reportDir) throws Exception {
+        report.write(reportDir, stats);
+        report.print(System.out);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.docencia.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one run: per-endpoint and overall throughput, error rate and latency percentiles.
+ * Written as JSON plus one HdrHistogram percentile distribution (.hgrm, milliseconds) per endpoint.
+ */
+record Report(String app, String mode, String label, int clients, Double targetRatePerSecond,
+              double durationSeconds, List<EndpointReport> endpoints, EndpointReport total) {
+
+    record EndpointReport(String endpoint, long requests, long errors, long dropped, double errorRate,
+                          double throughputPerSecond, Map<String, Double> latencyMillis) {
+
+        static EndpointReport of(String endpoint, Histogram latency, long errors, long dropped, double seconds) {
+            long requests = latency.getTotalCount() + dropped;
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            percentiles.put("mean", latency.getMean() / 1000.0);
+            for (double percentile : new double[]{50, 90, 99, 99.9}) {
+                percentiles.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                        : String.valueOf(percentile)), latency.getValueAtPercentile(percentile) / 1000.0);
+            }
+            percentiles.put("max", latency.getMaxValue() / 1000.0);
+            return new EndpointReport(endpoint, requests, errors, dropped,
+                    requests > 0 ? (double) errors / requests : 0.0, latency.getTotalCount() / seconds, percentiles);
+        }
+    }
+
+    static Report of(String app, String mode, String label, int clients, Double rate,
+                     double seconds, Map<String, EndpointStats> stats) {
+        List<EndpointReport> endpoints = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            endpoints.add(EndpointReport.of(endpoint.name(), endpoint.latency(), endpoint.errors(),
+                    endpoint.dropped(), seconds));
+            all.add(endpoint.latency());
+            errors += endpoint.errors();
+            dropped += endpoint.dropped();
+        }
+        return new Report(app, mode, label, clients, rate, seconds, endpoints,
+                EndpointReport.of("total", all, errors, dropped, seconds));
+    }
+
+    void write(Path directory, Map<String, EndpointStats> stats) throws IOException {
+        Files.createDirectories(directory);
+        String base = app + "-" + mode + "-" + label;
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve(base + ".json").toFile(), this);
+        int index = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            Path file = directory.resolve(base + "-" + (index++) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                out.println("# " + endpoint.name());
+                endpoint.latency().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n== %s / %s / %s (%.0f s)%n", app, mode, label, durationSeconds);
+        out.printf("%-64s %9s %8s %9s %9s %9s %9s%n", "endpoint", "req/s", "err%", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        List<EndpointReport> rows = new ArrayList<>(endpoints);
+        rows.add(total);
+        for (EndpointReport row : rows) {
+            out.printf("%-64s %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f%n", row.endpoint(), row.throughputPerSecond(),
+                    row.errorRate() * 100, row.latencyMillis().get("p50"), row.latencyMillis().get("p90"),
+                    row.latencyMillis().get("p99"), row.latencyMillis().get("max"));
+        }
+    }
+}
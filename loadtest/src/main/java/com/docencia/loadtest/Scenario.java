@@ -0,0 +1,192 @@
+package com.docencia.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How to start one application, seed it and which request mix to send.
+ */
+abstract class Scenario {
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    final String name;
+    final Path jar;
+
+    Scenario(String name, Path jar) {
+        this.name = name;
+        this.jar = jar;
+    }
+
+    abstract List<String> appArgs(Path workDir) throws IOException;
+
+    abstract String readinessPath();
+
+    // Seeds the running application and returns the request mix
+    abstract List<Endpoint> prepare(AppProcess app, HttpClient client) throws IOException, InterruptedException;
+
+    static HttpRequest get(AppProcess app, String path) {
+        return HttpRequest.newBuilder(app.uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    static HttpRequest post(AppProcess app, String path, String contentType, String body) {
+        return HttpRequest.newBuilder(app.uri(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static String send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    /**
+     * tutorial05: product pages, listings, search and the create form.
+     */
+    static final class Catalog extends Scenario {
+
+        private static final int PRODUCTS = 1000;
+
+        Catalog(Path jar) {
+            super("catalog", jar);
+        }
+
+        @Override
+        List<String> appArgs(Path workDir) {
+            return List.of();
+        }
+
+        @Override
+        String readinessPath() {
+            return "/";
+        }
+
+        @Override
+        List<Endpoint> prepare(AppProcess app, HttpClient client) throws IOException, InterruptedException {
+            StringBuilder csv = new StringBuilder("name,price\n");
+            for (int i = 0; i < PRODUCTS; i++) {
+                csv.append("Product ").append(i).append(',').append(1 + i % 500).append(".99\n");
+            }
+            send(client, post(app, "/api/products/import", "text/csv", csv.toString()));
+            // 4 seeded products plus the imported ones
+            int lastId = PRODUCTS + 4;
+
+            return List.of(
+                    new Endpoint("GET /products", 25, random -> get(app, "/products")),
+                    new Endpoint("GET /products?page", 10, random ->
+                            get(app, "/products?page=" + (1 + random.nextInt(lastId / 12)))),
+                    new Endpoint("GET /products/{id}", 40, random ->
+                            get(app, "/products/" + (1 + random.nextInt(lastId)))),
+                    new Endpoint("GET /products/search", 10, random ->
+                            get(app, "/products/search?q=product+" + random.nextInt(PRODUCTS))),
+                    new Endpoint("POST /products/save", 15, random ->
+                            post(app, "/products/save", "application/x-www-form-urlencoded",
+                                    "name=" + URLEncoder.encode("Load " + random.nextInt(1_000_000), StandardCharsets.UTF_8)
+                                            + "&price=" + (1 + random.nextInt(1000)))));
+        }
+    }
+
+    /**
+     * tutorial006: /api/mediciones reads and writes over a seeded nutritionist with 200 patients.
+     */
+    static final class Nutrition extends Scenario {
+
+        private static final int PACIENTES = 200;
+        private static final int MEDICIONES_POR_PACIENTE = 10;
+        private static final long NUTRICIONISTA_ID = 1;
+
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        Nutrition(Path jar) {
+            super("nutrition", jar);
+        }
+
+        @Override
+        List<String> appArgs(Path workDir) throws IOException {
+            // Reference data is inserted by SQL after Hibernate creates the schema
+            Path seed = workDir.resolve("nutrition-seed.sql");
+            Files.createDirectories(workDir);
+            try (InputStream in = Scenario.class.getResourceAsStream("/nutrition-seed.sql")) {
+                Files.copy(in, seed, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return List.of(
+                    "--spring.sql.init.data-locations=file:" + seed.toAbsolutePath(),
+                    "--spring.jpa.defer-datasource-initialization=true",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.org.hibernate.SQL=WARN",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        }
+
+        @Override
+        String readinessPath() {
+            return "/api/mediciones/constructor?size=1";
+        }
+
+        @Override
+        List<Endpoint> prepare(AppProcess app, HttpClient client) throws IOException, InterruptedException {
+            ArrayNode batch = mapper.createArrayNode();
+            for (int paciente = 1; paciente <= PACIENTES; paciente++) {
+                for (int i = 0; i < MEDICIONES_POR_PACIENTE; i++) {
+                    ObjectNode item = batch.addObject();
+                    item.put("pacienteId", paciente);
+                    item.put("nutricionistaId", NUTRICIONISTA_ID);
+                    item.put("fecha", LocalDate.of(2024, 1, 1).plusWeeks(i).toString());
+                    item.put("peso", 60 + (paciente + i) % 40);
+                    item.put("altura", 150 + paciente % 45);
+                }
+            }
+            send(client, post(app, "/api/mediciones/batch", "application/json", batch.toString()));
+
+            List<Long> ids = new ArrayList<>();
+            Long afterId = 0L;
+            while (afterId != null) {
+                JsonNode page = mapper.readTree(send(client,
+                        get(app, "/api/mediciones/constructor/keyset?size=500&afterId=" + afterId)));
+                page.get("content").forEach(medicion -> ids.add(medicion.get("id").asLong()));
+                afterId = page.get("nextAfterId").isNull() ? null : page.get("nextAfterId").asLong();
+            }
+            long[] medicionIds = ids.stream().mapToLong(Long::longValue).toArray();
+            int pages = Math.max(1, medicionIds.length / 50);
+
+            return List.of(
+                    new Endpoint("GET /api/mediciones/constructor", 15, random ->
+                            get(app, "/api/mediciones/constructor?size=50&page=" + random.nextInt(pages))),
+                    new Endpoint("GET /api/mediciones/constructor/keyset", 15, random ->
+                            get(app, "/api/mediciones/constructor/keyset?size=50&afterId="
+                                    + medicionIds[random.nextInt(medicionIds.length)])),
+                    new Endpoint("GET /api/mediciones/compare/{id}", 20, random ->
+                            get(app, "/api/mediciones/compare/" + medicionIds[random.nextInt(medicionIds.length)])),
+                    new Endpoint("GET /api/mediciones/nutricionista/{id}/ultimas", 10, random ->
+                            get(app, "/api/mediciones/nutricionista/" + NUTRICIONISTA_ID + "/ultimas")),
+                    new Endpoint("GET /api/pacientes/{id}/estadisticas", 15, random ->
+                            get(app, "/api/pacientes/" + (1 + random.nextInt(PACIENTES)) + "/estadisticas")),
+                    new Endpoint("POST /api/mediciones/constructor/paciente/{p}/nutricionista/{n}", 25, random ->
+                            post(app, "/api/mediciones/constructor/paciente/" + (1 + random.nextInt(PACIENTES))
+                                            + "/nutricionista/" + NUTRICIONISTA_ID, "application/json",
+                                    "{\"fecha\":\"" + LocalDate.now() + "\",\"peso\":" + (50 + random.nextInt(60))
+                                            + ",\"altura\":" + (150 + random.nextInt(45)) + "}")));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.docencia.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of endpoints and records the latency of every request.
+ * <ul>
+ *     <li>Closed loop: a fixed number of clients, each sending its next request as soon as the
+ *     previous one completes. Throughput is the result.</li>
+ *     <li>Open loop: requests start at a constant arrival rate whatever the response times.
+ *     Latency is measured from the scheduled start, so queueing delay is not hidden
+ *     (no coordinated omission).</li>
+ * </ul>
+ */
+final class Workload {
+
+    private final HttpClient client;
+    private final List<Endpoint> endpoints;
+    private final int[] cumulativeWeights;
+
+    Workload(HttpClient client, List<Endpoint> endpoints) {
+        this.client = client;
+        this.endpoints = endpoints;
+        this.cumulativeWeights = new int[endpoints.size()];
+        int total = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            total += endpoints.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    Map<String, EndpointStats> newStats() {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.put(endpoint.name(), new EndpointStats(endpoint.name()));
+        }
+        return stats;
+    }
+
+    void closedLoop(Map<String, EndpointStats> stats, int clients, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick();
+                        long start = System.nanoTime();
+                        boolean error = !send(endpoint);
+                        stats.get(endpoint.name()).record(System.nanoTime() - start, error);
+                    }
+                });
+            }
+        }
+    }
+
+    void openLoop(Map<String, EndpointStats> stats, double ratePerSecond, int maxInFlight, Duration duration) {
+        long intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = pick();
+                EndpointStats endpointStats = stats.get(endpoint.name());
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    endpointStats.recordDropped();
+                    continue;
+                }
+                executor.submit(() -> {
+                    try {
+                        boolean error = !send(endpoint);
+                        endpointStats.record(System.nanoTime() - scheduled, error);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private Endpoint pick() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints.get(i);
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+
+    // True for a 2xx/3xx response; 4xx, 5xx and I/O failures count as errors
+    private boolean send(Endpoint endpoint) {
+        try {
+            HttpResponse<Void> response = client.send(endpoint.request().apply(ThreadLocalRandom.current()),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
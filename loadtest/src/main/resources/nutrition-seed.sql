@@ -0,0 +1,7 @@
+-- Datos de referencia para las pruebas de carga: las mediciones se crean luego por la API
+INSERT INTO nutricionista (nombre, apellido, numero_licencia, especialidad, email, activo)
+VALUES ('Ana', 'Carga', 'LIC-CARGA-1', 'Deportiva', 'ana@carga.test', TRUE);
+
+INSERT INTO paciente (nombre, apellido, fecha_nacimiento, email, activo, nutricionista_id)
+SELECT 'Paciente' || X, 'Carga', DATE '1990-01-01', 'paciente' || X || '@carga.test', TRUE, 1
+FROM SYSTEM_RANGE(1, 200);
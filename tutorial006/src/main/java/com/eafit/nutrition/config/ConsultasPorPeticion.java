@@ -0,0 +1,126 @@
+package com.eafit.nutrition.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta las sentencias SQL que prepara Hibernate y las entidades que carga dentro de un ámbito
+ * (una petición HTTP, o una prueba). El ámbito vive en el hilo actual; las tareas que la petición
+ * delega a otros hilos (/compare, respuestas en streaming) lo heredan a través de propagar().
+ * Se registra en Hibernate como StatementInspector e Interceptor de la SessionFactory.
+ */
+public class ConsultasPorPeticion implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<Contador> ACTUAL = new ThreadLocal<>();
+
+    public static final class Contador {
+
+        // Atómicos: las tareas propagadas a otros hilos cuentan a la vez que la petición
+        private final AtomicInteger sentencias = new AtomicInteger();
+        private final AtomicInteger entidades = new AtomicInteger();
+        private final List<String> sql;
+
+        private Contador(boolean guardarSql) {
+            this.sql = guardarSql ? new CopyOnWriteArrayList<>() : null;
+        }
+
+        public int sentencias() {
+            return sentencias.get();
+        }
+
+        public int entidades() {
+            return entidades.get();
+        }
+
+        // Texto de cada sentencia, solo si el ámbito se abrió con guardarSql
+        public List<String> sql() {
+            return sql != null ? List.copyOf(sql) : List.of();
+        }
+    }
+
+    public static final class Ambito implements AutoCloseable {
+
+        private final Contador contador;
+        private final boolean propio;
+
+        private Ambito(Contador contador, boolean propio) {
+            this.contador = contador;
+            this.propio = propio;
+        }
+
+        public Contador contador() {
+            return contador;
+        }
+
+        @Override
+        public void close() {
+            if (propio) {
+                ACTUAL.remove();
+            }
+        }
+    }
+
+    /**
+     * Abre un ámbito en el hilo actual. Si ya hay uno abierto (una prueba que envuelve
+     * la petición) se reutiliza y solo quien lo abrió lo cierra.
+     */
+    public static Ambito abrir(boolean guardarSql) {
+        Contador existente = ACTUAL.get();
+        if (existente != null) {
+            return new Ambito(existente, false);
+        }
+        Contador contador = new Contador(guardarSql);
+        ACTUAL.set(contador);
+        return new Ambito(contador, true);
+    }
+
+    /**
+     * Envuelve una tarea para que cuente en el ámbito abierto en el hilo que la crea.
+     * Sirve como TaskDecorator y para los ejecutores propios de los controladores.
+     */
+    public static Runnable propagar(Runnable tarea) {
+        Contador contador = ACTUAL.get();
+        if (contador == null) {
+            return tarea;
+        }
+        return () -> {
+            Contador anterior = ACTUAL.get();
+            ACTUAL.set(contador);
+            try {
+                tarea.run();
+            } finally {
+                if (anterior != null) {
+                    ACTUAL.set(anterior);
+                } else {
+                    ACTUAL.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contador contador = ACTUAL.get();
+        if (contador != null) {
+            contador.sentencias.incrementAndGet();
+            if (contador.sql != null) {
+                contador.sql.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Contador contador = ACTUAL.get();
+        if (contador != null) {
+            contador.entidades.incrementAndGet();
+        }
+        return false;
+    }
+}
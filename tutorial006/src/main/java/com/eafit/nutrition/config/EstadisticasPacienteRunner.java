@@ -0,0 +1,30 @@
+package com.eafit.nutrition.config;
+
+import com.eafit.nutrition.service.EstadisticaPacienteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Al arrancar, calcula las estadísticas de los pacientes que ya tenían mediciones
+// antes de que existiera la tabla estadistica_paciente
+@Component
+public class EstadisticasPacienteRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasPacienteRunner.class);
+
+    private final EstadisticaPacienteService estadisticaService;
+
+    public EstadisticasPacienteRunner(EstadisticaPacienteService estadisticaService) {
+        this.estadisticaService = estadisticaService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int pacientes = estadisticaService.reconstruirFaltantes();
+        if (pacientes > 0) {
+            log.info("Estadísticas calculadas para {} pacientes con mediciones existentes", pacientes);
+        }
+    }
+}
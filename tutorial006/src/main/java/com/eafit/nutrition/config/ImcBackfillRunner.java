@@ -0,0 +1,33 @@
+package com.eafit.nutrition.config;
+
+import com.eafit.nutrition.service.MedicionServiceConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Al arrancar, calcula el IMC de las mediciones guardadas antes de que existiera la columna.
+// Antes que EstadisticasPacienteRunner, que necesita el IMC de cada medición
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ImcBackfillRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImcBackfillRunner.class);
+
+    private final MedicionServiceConstructor medicionService;
+
+    public ImcBackfillRunner(MedicionServiceConstructor medicionService) {
+        this.medicionService = medicionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int actualizadas = medicionService.completarImcFaltante();
+        if (actualizadas > 0) {
+            log.info("IMC calculado para {} mediciones existentes", actualizadas);
+        }
+    }
+}
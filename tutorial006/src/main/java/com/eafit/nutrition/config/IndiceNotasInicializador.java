@@ -0,0 +1,30 @@
+package com.eafit.nutrition.config;
+
+import com.eafit.nutrition.service.NotaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+// Al arrancar, construye el índice de búsqueda con las notas ya guardadas.
+// Corre al terminar de crear los singletons, antes de que el servidor web acepte peticiones:
+// ninguna búsqueda ve el índice a medio construir
+@Component
+public class IndiceNotasInicializador implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceNotasInicializador.class);
+
+    private final NotaService notaService;
+
+    public IndiceNotasInicializador(NotaService notaService) {
+        this.notaService = notaService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int notas = notaService.reindexar();
+        if (notas > 0) {
+            log.info("Índice de búsqueda construido con {} notas", notas);
+        }
+    }
+}
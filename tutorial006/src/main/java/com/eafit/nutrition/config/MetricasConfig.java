@@ -0,0 +1,48 @@
+package com.eafit.nutrition.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Métricas propias expuestas junto a las de Spring Boot en /actuator/prometheus:
+ * sentencias SQL y entidades cargadas por petición. Las estadísticas globales de Hibernate
+ * (consultas, cargas, caché de segundo nivel) las publica hibernate-micrometer y las del pool
+ * de conexiones el soporte de Hikari de Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public ConsultasPorPeticion consultasPorPeticion() {
+        return new ConsultasPorPeticion();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer consultasPorPeticionCustomizer(ConsultasPorPeticion consultasPorPeticion) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, consultasPorPeticion);
+            properties.put(AvailableSettings.INTERCEPTOR, consultasPorPeticion);
+        };
+    }
+
+    // El ejecutor de Spring Boot (respuestas asíncronas y en streaming) hereda el ámbito de la petición
+    @Bean
+    public TaskDecorator consultasPorPeticionTaskDecorator() {
+        return ConsultasPorPeticion::propagar;
+    }
+
+    @Bean
+    public FilterRegistrationBean<MetricasPeticionFilter> metricasPeticionFilter(MeterRegistry registry) {
+        FilterRegistrationBean<MetricasPeticionFilter> registration =
+                new FilterRegistrationBean<>(new MetricasPeticionFilter(registry));
+        // Dentro del filtro de observación de Spring Boot, antes del resto
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,93 @@
+package com.eafit.nutrition.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publica por endpoint cuántas sentencias SQL y cuántas entidades cargó cada petición
+ * (nutrition.request.sql.statements y nutrition.request.entities.loaded), con las mismas
+ * etiquetas uri/method/status que http.server.requests.
+ */
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public MetricasPeticionFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(false)) {
+            ConsultasPorPeticion.Contador contador = ambito.contador();
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                // El contenedor responderá 500 después de que la excepción salga del filtro
+                registrar(request, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, contador);
+                throw e;
+            }
+            if (request.isAsyncStarted()) {
+                // El trabajo continúa en otro hilo con el mismo contador (ConsultasPorPeticion.propagar):
+                // se registra cuando la respuesta termina
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        registrar(request, response.getStatus(), contador);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                return;
+            }
+            registrar(request, response.getStatus(), contador);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, int status, ConsultasPorPeticion.Contador contador) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "uri", patron != null ? patron.toString() : "UNKNOWN",
+                "method", request.getMethod(),
+                "status", Integer.toString(status));
+        resumen("nutrition.request.sql.statements", "Sentencias SQL por petición", tags)
+                .record(contador.sentencias());
+        resumen("nutrition.request.entities.loaded", "Entidades cargadas por petición", tags)
+                .record(contador.entidades());
+    }
+
+    private DistributionSummary resumen(String nombre, String descripcion, Tags tags) {
+        return DistributionSummary.builder(nombre)
+                .description(descripcion)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
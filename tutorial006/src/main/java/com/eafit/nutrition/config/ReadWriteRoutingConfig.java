@@ -0,0 +1,50 @@
+package com.eafit.nutrition.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Enrutamiento de lecturas y escrituras (nutrition.datasource.routing.enabled=true).
+ * Las transacciones @Transactional(readOnly = true) toman conexión del pool de réplica y el
+ * resto del pool primario. LazyConnectionDataSourceProxy retrasa la conexión real hasta la
+ * primera sentencia, cuando ya sabe si la transacción marcó la conexión como de solo lectura.
+ * Cada pool tiene su propia configuración Hikari: spring.datasource.hikari.* para el primario y
+ * nutrition.datasource.replica.* para la réplica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "nutrition.datasource.routing.enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("nutrition.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            @Value("${nutrition.datasource.replica.failover-cooldown:PT30S}") Duration failoverCooldown) {
+        HikariDataSource primary = primaryDataSource(properties);
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaFailoverDataSource(replicaDataSource(), primary, failoverCooldown));
+        return routing;
+    }
+}
@@ -0,0 +1,58 @@
+package com.eafit.nutrition.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Pool de lectura con respaldo: si la réplica no entrega una conexión, la lectura se hace
+ * en el primario. Tras un fallo la réplica se omite durante el tiempo de espera configurado,
+ * para no pagar el timeout de conexión en cada petición mientras siga caída.
+ */
+public class ReplicaFailoverDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFailoverDataSource.class);
+
+    private final DataSource primary;
+    private final long cooldownMillis;
+    private volatile long replicaOmitidaHasta;
+
+    public ReplicaFailoverDataSource(DataSource replica, DataSource primary, Duration cooldown) {
+        super(replica);
+        this.primary = primary;
+        this.cooldownMillis = cooldown.toMillis();
+    }
+
+    @FunctionalInterface
+    private interface Apertura {
+        Connection abrir(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conectar(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conectar(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection conectar(Apertura apertura) throws SQLException {
+        if (System.currentTimeMillis() < replicaOmitidaHasta) {
+            return apertura.abrir(primary);
+        }
+        try {
+            return apertura.abrir(obtainTargetDataSource());
+        } catch (SQLException e) {
+            replicaOmitidaHasta = System.currentTimeMillis() + cooldownMillis;
+            log.warn("Réplica no disponible, las lecturas van al primario durante {} ms", cooldownMillis, e);
+            return apertura.abrir(primary);
+        }
+    }
+}
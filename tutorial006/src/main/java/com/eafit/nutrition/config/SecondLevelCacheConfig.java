@@ -0,0 +1,72 @@
+package com.eafit.nutrition.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Caché de segundo nivel de Hibernate para los datos de referencia (Nutricionista, Paciente),
+ * las notas que Nutricionista carga EAGER (entidades y colección) y para las consultas marcadas
+ * como cacheables. Usa Ehcache en memoria vía JCache, con tamaño y TTL configurables desde
+ * application.properties.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Nombres de región usados en las anotaciones @Cache de las entidades
+    public static final String NUTRICIONISTA_REGION = "nutricionista";
+    public static final String PACIENTE_REGION = "paciente";
+    public static final String NOTA_REGION = "nota";
+    public static final String NUTRICIONISTA_NOTAS_REGION = "nutricionista-notas";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${nutrition.cache.entity.max-entries:10000}") long entityMaxEntries,
+            @Value("${nutrition.cache.entity.ttl:PT10M}") Duration entityTtl,
+            @Value("${nutrition.cache.query.max-entries:1000}") long queryMaxEntries,
+            @Value("${nutrition.cache.query.ttl:PT1M}") Duration queryTtl) {
+
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache(NUTRICIONISTA_REGION, region(entityMaxEntries, entityTtl))
+                .withCache(PACIENTE_REGION, region(entityMaxEntries, entityTtl))
+                .withCache(NOTA_REGION, region(entityMaxEntries, entityTtl))
+                .withCache(NUTRICIONISTA_NOTAS_REGION, region(entityMaxEntries, entityTtl))
+                .withCache(QUERY_RESULTS_REGION, region(queryMaxEntries, queryTtl))
+                // Los timestamps invalidan el caché de consultas: nunca deben expirar antes que los resultados
+                .withCache(UPDATE_TIMESTAMPS_REGION, CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                        Object.class, Object.class, ResourcePoolsBuilder.heap(10_000)).build());
+
+        // URI propio por contexto de Spring para no compartir el CacheManager (p. ej. entre pruebas)
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:nutrition:hibernate:" + System.identityHashCode(this)),
+                configuration.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CacheConfiguration<Object, Object> region(long maxEntries, Duration ttl) {
+        return CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.eafit.nutrition.config;
+
+import com.eafit.nutrition.model.Medicion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Al arrancar, lleva medicion_seq por encima del mayor id existente. Las bases creadas cuando
+// Medicion usaba IDENTITY (p. ej. staging con ddl-auto=update) reciben la secuencia empezando en 1
+// y los nuevos INSERT chocarían con las filas guardadas.
+// Corre al terminar de crear los singletons: antes de que el servidor web acepte peticiones
+// y de los ApplicationRunner, que ya pueden escribir mediciones
+@Component
+public class SecuenciaMedicionInicializador implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciaMedicionInicializador.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SecuenciaMedicionInicializador(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long maximo = jdbcTemplate.queryForObject("SELECT MAX(id) FROM medicion", Long.class);
+        if (maximo == null) {
+            return;
+        }
+        // Con el optimizador pooled el valor leído de la secuencia es el final del bloque de ids:
+        // un bloque completo por encima del máximo garantiza que ningún id reservado ya exista
+        long siguiente = maximo + Medicion.IDS_POR_BLOQUE + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + Medicion.SECUENCIA + " RESTART WITH " + siguiente);
+        log.info("{} reiniciada en {} (mayor id de medición: {})", Medicion.SECUENCIA, siguiente, maximo);
+    }
+}
@@ -0,0 +1,57 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.dto.ResultadoLote;
+import com.eafit.nutrition.service.CargaParcialException;
+import com.eafit.nutrition.service.ColaLlenaException;
+import com.eafit.nutrition.service.SolicitudInvalidaException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.Objects;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // Referencias inexistentes, datos incompletos o parámetros inválidos
+    @ExceptionHandler(SolicitudInvalidaException.class)
+    public ResponseEntity<Map<String, String>> handleSolicitudInvalida(SolicitudInvalidaException e) {
+        return ResponseEntity.badRequest().body(error(e, "Solicitud inválida"));
+    }
+
+    // Contrapresión del modo de escritura asíncrona
+    @ExceptionHandler(ColaLlenaException.class)
+    public ResponseEntity<Map<String, String>> handleColaLlena(ColaLlenaException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error(e, "Cola de escritura llena"));
+    }
+
+    // Carga masiva interrumpida: los bloques ya confirmados no se revierten
+    @ExceptionHandler(CargaParcialException.class)
+    public ResponseEntity<Map<String, Object>> handleCargaParcial(CargaParcialException e) {
+        ResultadoLote resultado = e.getResultado();
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "error", e.getMessage(),
+                "recibidas", resultado.recibidas(),
+                "guardadas", resultado.guardadas(),
+                "bloques", resultado.bloques()));
+    }
+
+    // Pool de conexiones agotado durante spring.datasource.hikari.connection-timeout
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleSinConexion(CannotCreateTransactionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Base de datos saturada, reintente"));
+    }
+
+    // Map.of no admite valores nulos y no todas las excepciones traen mensaje
+    private static Map<String, String> error(RuntimeException e, String porDefecto) {
+        return Map.of("error", Objects.requireNonNullElse(e.getMessage(), porDefecto));
+    }
+}
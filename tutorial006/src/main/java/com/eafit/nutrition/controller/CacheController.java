@@ -0,0 +1,52 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.config.SecondLevelCacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final Statistics statistics;
+
+    public CacheController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // 📌 Aciertos y fallos del caché de segundo nivel, junto a las sentencias enviadas a la BD
+    @GetMapping("/estadisticas")
+    public ResponseEntity<Map<String, Object>> getEstadisticas() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        response.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        response.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        response.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        response.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        response.put("preparedStatements", statistics.getPrepareStatementCount());
+        response.put("entitiesLoaded", statistics.getEntityLoadCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String region : new String[]{SecondLevelCacheConfig.NUTRICIONISTA_REGION, SecondLevelCacheConfig.PACIENTE_REGION,
+                SecondLevelCacheConfig.NOTA_REGION, SecondLevelCacheConfig.NUTRICIONISTA_NOTAS_REGION}) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("hits", regionStatistics.getHitCount());
+            values.put("misses", regionStatistics.getMissCount());
+            values.put("puts", regionStatistics.getPutCount());
+            values.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+            regions.put(region, values);
+        }
+        response.put("regions", regions);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,56 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.service.ExportacionService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+@RestController
+@RequestMapping("/api/exportaciones")
+public class ExportacionController {
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ExportacionService exportacionService;
+
+    public ExportacionController(ExportacionService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    // 📌 Todas las mediciones de un nutricionista en CSV, escritas a medida que se leen
+    @GetMapping(value = "/nutricionista/{nutricionistaId}/mediciones", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportarMediciones(@PathVariable Long nutricionistaId) {
+        return csv(nutricionistaId, "mediciones-nutricionista-" + nutricionistaId + ".csv",
+                exportacionService::exportarMediciones);
+    }
+
+    // 📌 Todas las notas de un nutricionista en CSV
+    @GetMapping(value = "/nutricionista/{nutricionistaId}/notas", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportarNotas(@PathVariable Long nutricionistaId) {
+        return csv(nutricionistaId, "notas-nutricionista-" + nutricionistaId + ".csv",
+                exportacionService::exportarNotas);
+    }
+
+    private ResponseEntity<StreamingResponseBody> csv(Long nutricionistaId, String archivo,
+                                                      BiConsumer<Long, Writer> exportar) {
+        // Se valida antes de empezar a escribir para poder responder 400
+        exportacionService.validarNutricionista(nutricionistaId);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            exportar.accept(nutricionistaId, writer);
+        };
+        return ResponseEntity.ok()
+                .contentType(CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archivo).build().toString())
+                .body(body);
+    }
+}
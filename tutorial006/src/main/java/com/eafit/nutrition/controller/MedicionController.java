@@ -1,25 +1,60 @@
 package com.eafit.nutrition.controller;
 
+import com.eafit.nutrition.config.ConsultasPorPeticion;
+import com.eafit.nutrition.dto.EstadoEscritura;
+import com.eafit.nutrition.dto.KeysetPage;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.dto.ResultadoLote;
 import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.service.EscrituraAsincronaMediciones;
 import com.eafit.nutrition.service.MedicionServiceConstructor;
 import com.eafit.nutrition.service.MedicionServiceAutowired;
 import com.eafit.nutrition.service.MedicionServiceSetter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/mediciones")
 public class MedicionController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int MAX_KEYSET_SIZE = 500;
+
     // ✅ Inyección por constructor
     private final MedicionServiceConstructor constructorService;
+    private final ObjectWriter ndjsonWriter;
+    // Solo existe con nutrition.async-writes.enabled=true
+    private final ObjectProvider<EscrituraAsincronaMediciones> escrituraAsincrona;
+    // Un hilo virtual por consulta de /compare
+    private final ExecutorService compareExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // Las consultas de /compare cuentan como SQL de la petición que las lanzó
+    private final Executor compareTareas = tarea -> compareExecutor.execute(ConsultasPorPeticion.propagar(tarea));
 
     // ✅ Inyección por campo
     @Autowired
@@ -29,8 +64,16 @@ public class MedicionController {
     private MedicionServiceSetter setterService;
 
     // Constructor con inyección
-    public MedicionController(MedicionServiceConstructor constructorService) {
+    public MedicionController(MedicionServiceConstructor constructorService, ObjectMapper objectMapper,
+                              ObjectProvider<EscrituraAsincronaMediciones> escrituraAsincrona) {
         this.constructorService = constructorService;
+        this.ndjsonWriter = objectMapper.writer().withRootValueSeparator("\n");
+        this.escrituraAsincrona = escrituraAsincrona;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        compareExecutor.close();
     }
 
     @Autowired
@@ -40,48 +83,140 @@ public class MedicionController {
 
     // ------------------ ENDPOINTS ------------------
 
-    // 📌 Consultar todas las mediciones usando Constructor Injection
+    // 📌 Consultar las mediciones (paginadas: ?page=0&size=50&sort=fecha,desc) usando Constructor Injection
     @GetMapping("/constructor")
-    public ResponseEntity<List<Medicion>> getAllMedicionesConstructor() {
-        return ResponseEntity.ok(constructorService.findAll());
+    public ResponseEntity<PagedModel<MedicionResumen>> getAllMedicionesConstructor(
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(constructorService.findPage(pageable)));
     }
 
-    // 📌 Consultar todas las mediciones usando Field Injection
+    // 📌 Consultar las mediciones (paginadas) usando Field Injection
     @GetMapping("/autowired")
-    public ResponseEntity<List<Medicion>> getAllMedicionesAutowired() {
-        return ResponseEntity.ok(autowiredService.findAll());
+    public ResponseEntity<PagedModel<MedicionResumen>> getAllMedicionesAutowired(
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(autowiredService.findPage(pageable)));
     }
 
-    // 📌 Consultar todas las mediciones usando Setter Injection
+    // 📌 Consultar las mediciones (paginadas) usando Setter Injection
     @GetMapping("/setter")
-    public ResponseEntity<List<Medicion>> getAllMedicionesSetter() {
-        return ResponseEntity.ok(setterService.findAll());
+    public ResponseEntity<PagedModel<MedicionResumen>> getAllMedicionesSetter(
+            @PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(setterService.findPage(pageable)));
     }
 
-    // 📌 Comparar resultados de los tres servicios para un mismo ID
+    // 📌 Paginación por keyset: el costo no crece con la profundidad de la página
+    @GetMapping("/constructor/keyset")
+    public ResponseEntity<KeysetPage<MedicionResumen>> getMedicionesKeyset(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_SIZE));
+        return ResponseEntity.ok(constructorService.findAfter(afterId, pageSize));
+    }
+
+    // 📌 Exportar todas las mediciones como NDJSON (una por línea) en memoria constante
+    @GetMapping(value = "/constructor/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamMediciones() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter lines = ndjsonWriter.writeValues(outputStream)) {
+                constructorService.forEachResumen(medicion -> {
+                    try {
+                        lines.write(medicion);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // 📌 Última medición de cada paciente de un nutricionista (tablero de la cartera)
+    @GetMapping("/nutricionista/{nutricionistaId}/ultimas")
+    public ResponseEntity<List<MedicionResumen>> getUltimasPorNutricionista(@PathVariable Long nutricionistaId) {
+        return ResponseEntity.ok(constructorService.findUltimasPorNutricionista(nutricionistaId));
+    }
+
+    // 📌 Pacientes activos del nutricionista cuya última medición está en la banda de IMC (?min=30)
+    @GetMapping("/nutricionista/{nutricionistaId}/imc")
+    public ResponseEntity<List<MedicionResumen>> getUltimasConImcEntre(
+            @PathVariable Long nutricionistaId,
+            @RequestParam(defaultValue = "0") double min,
+            @RequestParam(defaultValue = "1000") double max) {
+        return ResponseEntity.ok(constructorService.findUltimasConImcEntre(nutricionistaId, min, max));
+    }
+
+    // 📌 Todas las mediciones en la banda de IMC (paginadas)
+    @GetMapping("/imc")
+    public ResponseEntity<PagedModel<MedicionResumen>> getMedicionesConImcEntre(
+            @RequestParam(defaultValue = "0") double min,
+            @RequestParam(defaultValue = "1000") double max,
+            @PageableDefault(size = 50, sort = "imc") Pageable pageable) {
+        return ResponseEntity.ok(new PagedModel<>(constructorService.findByImcEntre(min, max, pageable)));
+    }
+
+    // 📌 Comparar resultados de los tres servicios para un mismo ID.
+    // Las tres consultas corren a la vez en hilos virtuales y, como piden el mismo ID,
+    // CargaCompartidaMediciones las resuelve con una sola ida a la BD
     @GetMapping("/compare/{id}")
     public ResponseEntity<Map<String, Object>> compareMedicionById(@PathVariable Long id) {
-        Optional<Medicion> constructorResult = constructorService.findById(id);
-        Optional<Medicion> autowiredResult = autowiredService.findById(id);
-        Optional<Medicion> setterResult = setterService.findById(id);
+        CompletableFuture<Optional<MedicionResumen>> constructorResult =
+                CompletableFuture.supplyAsync(() -> constructorService.findResumenById(id), compareTareas);
+        CompletableFuture<Optional<MedicionResumen>> autowiredResult =
+                CompletableFuture.supplyAsync(() -> autowiredService.findResumenById(id), compareTareas);
+        CompletableFuture<Optional<MedicionResumen>> setterResult =
+                CompletableFuture.supplyAsync(() -> setterService.findResumenById(id), compareTareas);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("constructorService", constructorResult.orElse(null));
-        response.put("autowiredService", autowiredResult.orElse(null));
-        response.put("setterService", setterResult.orElse(null));
+        response.put("constructorService", constructorResult.join().orElse(null));
+        response.put("autowiredService", autowiredResult.join().orElse(null));
+        response.put("setterService", setterResult.join().orElse(null));
 
         return ResponseEntity.ok(response);
     }
 
-    // 📌 Crear una medición asociada a un paciente y un nutricionista (usando constructorService)
+    // 📌 Crear una medición asociada a un paciente y un nutricionista (usando constructorService).
+    // En modo asíncrono responde 202 con el estado de la escritura, o 429 si la cola está llena
     @PostMapping("/constructor/paciente/{pacienteId}/nutricionista/{nutricionistaId}")
-    public ResponseEntity<Medicion> createMedicionConstructor(
+    public ResponseEntity<?> createMedicionConstructor(
             @PathVariable Long pacienteId,
             @PathVariable Long nutricionistaId,
             @RequestBody Medicion medicion) {
 
+        EscrituraAsincronaMediciones asincrona = escrituraAsincrona.getIfAvailable();
+        if (asincrona != null) {
+            EstadoEscritura estado = asincrona.encolar(pacienteId, nutricionistaId, medicion);
+            return ResponseEntity.accepted().location(URI.create("/api/mediciones/async/" + estado.id())).body(estado);
+        }
+
         Medicion createdMedicion = constructorService.createMedicion(pacienteId, nutricionistaId, medicion);
-        return new ResponseEntity<>(createdMedicion, HttpStatus.CREATED);
+        return new ResponseEntity<>(MedicionResumen.from(createdMedicion), HttpStatus.CREATED);
+    }
+
+    // 📌 Carga masiva: un arreglo de mediciones guardado en bloques con inserciones JDBC por lotes.
+    // No es atómica: si un bloque falla responde 500 indicando cuántas mediciones ya quedaron guardadas
+    @PostMapping("/batch")
+    public ResponseEntity<ResultadoLote> createMedicionesBatch(@RequestBody List<MedicionLoteItem> mediciones) {
+        return new ResponseEntity<>(constructorService.createMediciones(mediciones), HttpStatus.CREATED);
+    }
+
+    // 📌 Estado de una medición aceptada en modo asíncrono
+    @GetMapping("/async/{id}")
+    public ResponseEntity<EstadoEscritura> getEstadoEscritura(@PathVariable UUID id) {
+        EscrituraAsincronaMediciones asincrona = escrituraAsincrona.getIfAvailable();
+        if (asincrona == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return asincrona.estado(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    // 📌 Profundidad de la cola y latencia de commit del modo asíncrono
+    @GetMapping("/async/estadisticas")
+    public ResponseEntity<Map<String, Object>> getEstadisticasEscritura() {
+        EscrituraAsincronaMediciones asincrona = escrituraAsincrona.getIfAvailable();
+        if (asincrona == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(asincrona.estadisticas());
     }
 
     // Otros endpoints (update, delete, etc.) podrían ir aquí
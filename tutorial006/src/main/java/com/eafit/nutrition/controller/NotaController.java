@@ -0,0 +1,46 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.dto.NotaResultado;
+import com.eafit.nutrition.search.IndiceNotas;
+import com.eafit.nutrition.service.NotaService;
+import com.eafit.nutrition.service.SolicitudInvalidaException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/notas")
+public class NotaController {
+
+    private static final int MAX_RESULTADOS = 100;
+
+    private final NotaService notaService;
+
+    public NotaController(NotaService notaService) {
+        this.notaService = notaService;
+    }
+
+    // 📌 Búsqueda de texto en título y contenido, ordenada por relevancia
+    // (?q=...&pacienteId=&nutricionistaId=&tipoNota=&desde=yyyy-MM-dd&hasta=yyyy-MM-dd&limite=20)
+    @GetMapping("/search")
+    public ResponseEntity<List<NotaResultado>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Long pacienteId,
+            @RequestParam(required = false) Long nutricionistaId,
+            @RequestParam(required = false) String tipoNota,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "20") int limite) {
+        if (limite < 1 || limite > MAX_RESULTADOS) {
+            throw new SolicitudInvalidaException("limite debe estar entre 1 y " + MAX_RESULTADOS);
+        }
+        // "hasta" incluye el día completo
+        IndiceNotas.Filtro filtro = new IndiceNotas.Filtro(pacienteId, nutricionistaId, tipoNota,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.plusDays(1).atStartOfDay() : null);
+        return ResponseEntity.ok(notaService.buscar(q, filtro, limite));
+    }
+}
@@ -0,0 +1,51 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.dto.SeriePunto;
+import com.eafit.nutrition.model.EstadisticaPaciente;
+import com.eafit.nutrition.service.EstadisticaPacienteService;
+import com.eafit.nutrition.service.PacienteService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pacientes")
+public class PacienteController {
+
+    private final PacienteService pacienteService;
+    private final EstadisticaPacienteService estadisticaService;
+
+    public PacienteController(PacienteService pacienteService, EstadisticaPacienteService estadisticaService) {
+        this.pacienteService = pacienteService;
+        this.estadisticaService = estadisticaService;
+    }
+
+    // 📌 Evolución de peso, IMC y grasa por semana o mes (?bucket=week|month&puntos=N)
+    @GetMapping("/{id}/series")
+    public ResponseEntity<List<SeriePunto>> getSerie(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "month") String bucket,
+            @RequestParam(required = false) Integer puntos) {
+        return ResponseEntity.ok(pacienteService.serieTemporal(id, bucket, puntos));
+    }
+
+    // 📌 Media, desviación, mínimo, máximo y tendencia de peso e IMC (precalculadas)
+    @GetMapping("/{id}/estadisticas")
+    public ResponseEntity<EstadisticaPaciente> getEstadisticas(@PathVariable Long id) {
+        return ResponseEntity.ok(estadisticaService.obtener(id));
+    }
+
+    // 📌 Recalcular las estadísticas de un paciente desde sus mediciones
+    @PostMapping("/{id}/estadisticas/reconstruir")
+    public ResponseEntity<EstadisticaPaciente> reconstruirEstadisticas(@PathVariable Long id) {
+        return ResponseEntity.ok(estadisticaService.reconstruir(id));
+    }
+
+    // 📌 Recalcular las estadísticas de todos los pacientes con mediciones
+    @PostMapping("/estadisticas/reconstruir")
+    public ResponseEntity<Map<String, Integer>> reconstruirTodas() {
+        return ResponseEntity.ok(Map.of("pacientes", estadisticaService.reconstruirTodas()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.eafit.nutrition.dto;
+
+import java.util.UUID;
+
+// Estado de una medición aceptada en modo asíncrono: PENDIENTE, GUARDADA (con su id) o FALLIDA
+public record EstadoEscritura(UUID id, String estado, Long medicionId, String error) {
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String GUARDADA = "GUARDADA";
+    public static final String FALLIDA = "FALLIDA";
+
+    public static EstadoEscritura pendiente(UUID id) {
+        return new EstadoEscritura(id, PENDIENTE, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.eafit.nutrition.dto;
+
+import java.util.List;
+
+// Página por keyset: el cliente pide la siguiente con ?afterId=nextAfterId (null cuando no hay más)
+public record KeysetPage<T>(List<T> content, Long nextAfterId) {
+}
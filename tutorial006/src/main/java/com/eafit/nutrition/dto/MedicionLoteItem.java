@@ -0,0 +1,15 @@
+package com.eafit.nutrition.dto;
+
+import java.time.LocalDate;
+
+// Una medición dentro de una carga masiva (POST /api/mediciones/batch)
+public record MedicionLoteItem(
+        Long pacienteId,
+        Long nutricionistaId,
+        LocalDate fecha,
+        Double peso,
+        Double altura,
+        Double circunferenciaCintura,
+        Double circunferenciaCadera,
+        Double porcentajeGrasaCorporal) {
+}
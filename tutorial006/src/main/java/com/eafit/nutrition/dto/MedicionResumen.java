@@ -0,0 +1,40 @@
+package com.eafit.nutrition.dto;
+
+import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+
+import java.time.LocalDate;
+
+// Vista plana de una medición: solo las columnas que expone la API, sin el grafo de entidades
+public record MedicionResumen(
+        Long id,
+        LocalDate fecha,
+        Double peso,
+        Double altura,
+        Double circunferenciaCintura,
+        Double circunferenciaCadera,
+        Double porcentajeGrasaCorporal,
+        Double imc,
+        Long pacienteId,
+        String pacienteNombre,
+        String pacienteApellido,
+        Long nutricionistaId,
+        String nutricionistaNombre,
+        String nutricionistaApellido) {
+
+    public static MedicionResumen from(Medicion medicion) {
+        Paciente paciente = medicion.getPaciente();
+        Nutricionista nutricionista = medicion.getNutricionista();
+        return new MedicionResumen(medicion.getId(), medicion.getFecha(), medicion.getPeso(), medicion.getAltura(),
+                medicion.getCircunferenciaCintura(), medicion.getCircunferenciaCadera(),
+                medicion.getPorcentajeGrasaCorporal(),
+                medicion.getImc() != null ? medicion.getImc() : medicion.calcularIMC(),
+                paciente != null ? paciente.getId() : null,
+                paciente != null ? paciente.getNombre() : null,
+                paciente != null ? paciente.getApellido() : null,
+                nutricionista != null ? nutricionista.getId() : null,
+                nutricionista != null ? nutricionista.getNombre() : null,
+                nutricionista != null ? nutricionista.getApellido() : null);
+    }
+}
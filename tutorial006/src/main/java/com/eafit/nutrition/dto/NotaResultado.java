@@ -0,0 +1,5 @@
+package com.eafit.nutrition.dto;
+
+// Nota encontrada por la búsqueda con su puntaje BM25 (mayor es más relevante)
+public record NotaResultado(double puntaje, NotaResumen nota) {
+}
@@ -0,0 +1,14 @@
+package com.eafit.nutrition.dto;
+
+import java.time.LocalDateTime;
+
+// Nota sin sus relaciones: los ids de paciente y nutricionista bastan para filtrar y enlazar
+public record NotaResumen(
+        Long id,
+        String titulo,
+        String contenido,
+        LocalDateTime fechaCreacion,
+        String tipoNota,
+        Long pacienteId,
+        Long nutricionistaId) {
+}
@@ -0,0 +1,7 @@
+package com.eafit.nutrition.dto;
+
+import java.time.LocalDate;
+
+// Valores mínimos de una medición para recalcular estadísticas
+public record PuntoMedicion(LocalDate fecha, Double peso, Double imc) {
+}
@@ -0,0 +1,5 @@
+package com.eafit.nutrition.dto;
+
+// Resumen de una carga masiva: cada bloque se guarda en su propia transacción
+public record ResultadoLote(int recibidas, int guardadas, int bloques) {
+}
@@ -0,0 +1,18 @@
+package com.eafit.nutrition.dto;
+
+import java.time.LocalDate;
+
+// Agregados de un intervalo (semana o mes) de la serie de un paciente
+public record SeriePunto(
+        LocalDate inicio,
+        long mediciones,
+        Double pesoPromedio,
+        Double pesoMin,
+        Double pesoMax,
+        Double imcPromedio,
+        Double imcMin,
+        Double imcMax,
+        Double grasaPromedio,
+        Double grasaMin,
+        Double grasaMax) {
+}
@@ -0,0 +1,91 @@
+package com.eafit.nutrition.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.time.LocalDate;
+
+/**
+ * Estadísticas de una variable (peso o IMC) actualizadas en O(1) por cada medición nueva.
+ * Usa el algoritmo en línea de Welford para media y varianza, y el co-momento
+ * respecto a la fecha para la pendiente de la regresión lineal (tendencia).
+ */
+@Embeddable
+public class EstadisticaIncremental {
+
+    @Column(nullable = false)
+    private long cantidad;
+
+    private double media;
+
+    // Suma de cuadrados de las diferencias con la media
+    private double m2;
+
+    private Double minimo;
+
+    private Double maximo;
+
+    // Media y suma de cuadrados de la fecha (días desde 1970) y co-momento fecha-valor
+    private double mediaDia;
+
+    private double m2Dia;
+
+    private double coMomento;
+
+    public void agregar(LocalDate fecha, double valor) {
+        cantidad++;
+        double dia = fecha.toEpochDay();
+        double deltaDia = dia - mediaDia;
+        mediaDia += deltaDia / cantidad;
+        double delta = valor - media;
+        media += delta / cantidad;
+        double deltaFinal = valor - media;
+        m2 += delta * deltaFinal;
+        m2Dia += deltaDia * (dia - mediaDia);
+        coMomento += deltaDia * deltaFinal;
+        minimo = minimo == null ? valor : Math.min(minimo, valor);
+        maximo = maximo == null ? valor : Math.max(maximo, valor);
+    }
+
+    public void reiniciar() {
+        cantidad = 0;
+        media = 0;
+        m2 = 0;
+        minimo = null;
+        maximo = null;
+        mediaDia = 0;
+        m2Dia = 0;
+        coMomento = 0;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public Double getMedia() {
+        return cantidad > 0 ? media : null;
+    }
+
+    // Varianza muestral
+    public Double getVarianza() {
+        return cantidad > 1 ? m2 / (cantidad - 1) : null;
+    }
+
+    public Double getDesviacionEstandar() {
+        Double varianza = getVarianza();
+        return varianza != null ? Math.sqrt(varianza) : null;
+    }
+
+    public Double getMinimo() {
+        return minimo;
+    }
+
+    public Double getMaximo() {
+        return maximo;
+    }
+
+    // Pendiente de la recta de regresión, en unidades por semana
+    public Double getTendenciaSemanal() {
+        return m2Dia > 0 ? coMomento / m2Dia * 7 : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.eafit.nutrition.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Estadísticas acumuladas de las mediciones de un paciente, mantenidas al escribir cada medición
+@Entity
+@Table(name = "estadistica_paciente")
+public class EstadisticaPaciente {
+
+    @Id
+    @Column(name = "paciente_id")
+    private Long pacienteId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "cantidad", column = @Column(name = "peso_cantidad", nullable = false)),
+            @AttributeOverride(name = "media", column = @Column(name = "peso_media")),
+            @AttributeOverride(name = "m2", column = @Column(name = "peso_m2")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "peso_minimo")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "peso_maximo")),
+            @AttributeOverride(name = "mediaDia", column = @Column(name = "peso_media_dia")),
+            @AttributeOverride(name = "m2Dia", column = @Column(name = "peso_m2_dia")),
+            @AttributeOverride(name = "coMomento", column = @Column(name = "peso_co_momento"))
+    })
+    private EstadisticaIncremental peso = new EstadisticaIncremental();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "cantidad", column = @Column(name = "imc_cantidad", nullable = false)),
+            @AttributeOverride(name = "media", column = @Column(name = "imc_media")),
+            @AttributeOverride(name = "m2", column = @Column(name = "imc_m2")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "imc_minimo")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "imc_maximo")),
+            @AttributeOverride(name = "mediaDia", column = @Column(name = "imc_media_dia")),
+            @AttributeOverride(name = "m2Dia", column = @Column(name = "imc_m2_dia")),
+            @AttributeOverride(name = "coMomento", column = @Column(name = "imc_co_momento"))
+    })
+    private EstadisticaIncremental imc = new EstadisticaIncremental();
+
+    @Column(name = "primera_fecha")
+    private LocalDate primeraFecha;
+
+    @Column(name = "ultima_fecha")
+    private LocalDate ultimaFecha;
+
+    // Constructor vacío requerido por JPA
+    public EstadisticaPaciente() {
+    }
+
+    public EstadisticaPaciente(Long pacienteId) {
+        this.pacienteId = pacienteId;
+    }
+
+    public void registrar(LocalDate fecha, Double pesoKg, Double valorImc) {
+        if (pesoKg != null) {
+            peso.agregar(fecha, pesoKg);
+        }
+        if (valorImc != null) {
+            imc.agregar(fecha, valorImc);
+        }
+        if (primeraFecha == null || fecha.isBefore(primeraFecha)) {
+            primeraFecha = fecha;
+        }
+        if (ultimaFecha == null || fecha.isAfter(ultimaFecha)) {
+            ultimaFecha = fecha;
+        }
+    }
+
+    public void reiniciar() {
+        peso.reiniciar();
+        imc.reiniciar();
+        primeraFecha = null;
+        ultimaFecha = null;
+    }
+
+    // Getters
+    public Long getPacienteId() { return pacienteId; }
+
+    public EstadisticaIncremental getPeso() { return peso; }
+
+    public EstadisticaIncremental getImc() { return imc; }
+
+    public LocalDate getPrimeraFecha() { return primeraFecha; }
+
+    public LocalDate getUltimaFecha() { return ultimaFecha; }
+}
@@ -4,11 +4,23 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "medicion")
+@Table(name = "medicion", indexes = {
+        // Historial y última medición de un paciente (findByPacienteIdOrderByFechaDesc, NOT EXISTS por paciente)
+        @Index(name = "idx_medicion_paciente_fecha", columnList = "paciente_id, fecha"),
+        @Index(name = "idx_medicion_nutricionista_fecha", columnList = "nutricionista_id, fecha"),
+        // Consultas por rangos de IMC
+        @Index(name = "idx_medicion_imc", columnList = "imc")
+})
 public class Medicion {
 
+    public static final String SECUENCIA = "medicion_seq";
+    public static final int IDS_POR_BLOQUE = 50;
+
+    // Secuencia con optimizador pooled: Hibernate reserva 50 ids por consulta
+    // y puede agrupar los INSERT en lotes JDBC (IDENTITY lo impide)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SECUENCIA)
+    @SequenceGenerator(name = SECUENCIA, sequenceName = SECUENCIA, allocationSize = IDS_POR_BLOQUE)
     private Long id;
 
     @Column(name = "fecha", nullable = false)
@@ -29,6 +41,10 @@ public class Medicion {
     @Column(name = "porcentaje_grasa_corporal")
     private Double porcentajeGrasaCorporal;
 
+    // IMC derivado de peso y altura; se recalcula al insertar y al actualizar
+    @Column(name = "imc")
+    private Double imc;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Paciente paciente;
@@ -63,6 +79,12 @@ public class Medicion {
         return peso / (alturaEnMetros * alturaEnMetros);
     }
 
+    @PrePersist
+    @PreUpdate
+    void actualizarIMC() {
+        this.imc = calcularIMC();
+    }
+
     // ========================
     // Getters y Setters
     // ========================
@@ -115,6 +137,10 @@ public class Medicion {
         this.circunferenciaCadera = circunferenciaCadera;
     }
 
+    public Double getImc() {
+        return imc;
+    }
+
     public Double getPorcentajeGrasaCorporal() {
         return porcentajeGrasaCorporal;
     }
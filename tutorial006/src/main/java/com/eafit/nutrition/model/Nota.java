@@ -1,10 +1,21 @@
 package com.eafit.nutrition.model;
 
+import com.eafit.nutrition.config.SecondLevelCacheConfig;
+import com.eafit.nutrition.search.NotaIndiceListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "nota")
+@Table(name = "nota", indexes = {
+        @Index(name = "idx_nota_paciente_fecha", columnList = "paciente_id, fecha_creacion"),
+        @Index(name = "idx_nota_nutricionista_fecha", columnList = "nutricionista_id, fecha_creacion")
+})
+@EntityListeners(NotaIndiceListener.class)
+// Se carga EAGER con cada Nutricionista: sin caché, cada carga repetiría la consulta de sus notas
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.NOTA_REGION)
 public class Nota {
 
     @Id
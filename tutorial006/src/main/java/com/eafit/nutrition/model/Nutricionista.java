@@ -1,11 +1,17 @@
 package com.eafit.nutrition.model;
 
+import com.eafit.nutrition.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "nutricionista")
+// Datos de referencia que cambian poco: caché de segundo nivel READ_WRITE (se invalida al actualizar)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.NUTRICIONISTA_REGION)
 public class Nutricionista {
 
     @Id
@@ -37,8 +43,10 @@ public class Nutricionista {
     @OneToMany(mappedBy = "nutricionista", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Paciente> pacientes = new ArrayList<>();
 
-    // Relación EAGER con Notas
+    // Relación EAGER con Notas; la colección (ids) también va en caché, si no cada carga
+    // del nutricionista desde la caché volvería a consultar sus notas
     @OneToMany(mappedBy = "nutricionista", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.NUTRICIONISTA_NOTAS_REGION)
     private List<Nota> notas = new ArrayList<>();
 
     // Método helper para añadir pacientes
@@ -1,12 +1,20 @@
 package com.eafit.nutrition.model;
 
+import com.eafit.nutrition.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "paciente")
+@Table(name = "paciente", indexes = {
+        @Index(name = "idx_paciente_nutricionista", columnList = "nutricionista_id, activo")
+})
+// Datos de referencia que cambian poco: caché de segundo nivel READ_WRITE (se invalida al actualizar)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PACIENTE_REGION)
 public class Paciente {
 
     @Id
@@ -0,0 +1,20 @@
+package com.eafit.nutrition.repository;
+
+import com.eafit.nutrition.model.EstadisticaPaciente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EstadisticaPacienteRepository extends JpaRepository<EstadisticaPaciente, Long> {
+
+    // Bloquea la fila para que las escrituras concurrentes del mismo paciente no pierdan actualizaciones
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EstadisticaPaciente e WHERE e.pacienteId = :pacienteId")
+    Optional<EstadisticaPaciente> findForUpdate(@Param("pacienteId") Long pacienteId);
+}
@@ -1,18 +1,111 @@
 package com.eafit.nutrition.repository;
 
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.dto.PuntoMedicion;
 import com.eafit.nutrition.model.Medicion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicionRepository extends JpaRepository<Medicion, Long> {
 
+    // Proyección a DTO: una sola consulta con JOIN, sin cargar Paciente, Nutricionista ni sus notas
+    String SELECT_RESUMEN = "SELECT new com.eafit.nutrition.dto.MedicionResumen("
+            + "m.id, m.fecha, m.peso, m.altura, m.circunferenciaCintura, m.circunferenciaCadera, "
+            + "m.porcentajeGrasaCorporal, m.imc, p.id, p.nombre, p.apellido, n.id, n.nombre, n.apellido) "
+            + "FROM Medicion m JOIN m.paciente p JOIN m.nutricionista n ";
+
     // Todas las mediciones de un paciente ordenadas por fecha (más recientes primero)
     List<Medicion> findByPacienteIdOrderByFechaDesc(Long pacienteId);
 
     // Última medición registrada de un paciente
     Optional<Medicion> findFirstByPacienteIdOrderByFechaDesc(Long pacienteId);
+
+    // ------------------ Lecturas proyectadas ------------------
+
+    @Query(value = SELECT_RESUMEN, countQuery = "SELECT count(m) FROM Medicion m")
+    Page<MedicionResumen> findAllResumen(Pageable pageable);
+
+    @Query(SELECT_RESUMEN + "WHERE m.id = :id")
+    Optional<MedicionResumen> findResumenById(@Param("id") Long id);
+
+    @Query(SELECT_RESUMEN + "WHERE m.id > :afterId ORDER BY m.id")
+    List<MedicionResumen> findResumenAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESUMEN + "ORDER BY m.id")
+    Stream<MedicionResumen> streamResumen();
+
+    // Puntos de un paciente en orden cronológico, para recalcular sus estadísticas acumuladas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.eafit.nutrition.dto.PuntoMedicion(m.fecha, m.peso, m.imc) "
+            + "FROM Medicion m WHERE m.paciente.id = :pacienteId ORDER BY m.fecha, m.id")
+    Stream<PuntoMedicion> streamPuntos(@Param("pacienteId") Long pacienteId);
+
+    @Query("SELECT DISTINCT m.paciente.id FROM Medicion m")
+    List<Long> findPacienteIdsConMediciones();
+
+    // Pacientes con mediciones cuyas estadísticas nunca se calcularon
+    @Query("SELECT DISTINCT m.paciente.id FROM Medicion m "
+            + "WHERE NOT EXISTS (SELECT 1 FROM EstadisticaPaciente e WHERE e.pacienteId = m.paciente.id)")
+    List<Long> findPacienteIdsSinEstadisticas();
+
+    // Última medición de cada paciente de un nutricionista en una sola consulta.
+    // El NOT EXISTS se resuelve con el índice (paciente_id, fecha); el id desempata mediciones del mismo día
+    String ULTIMA_POR_PACIENTE = "NOT EXISTS (SELECT 1 FROM Medicion m2 WHERE m2.paciente = m.paciente "
+            + "AND (m2.fecha > m.fecha OR (m2.fecha = m.fecha AND m2.id > m.id))) ";
+
+    @Query(SELECT_RESUMEN + "WHERE p.nutricionista.id = :nutricionistaId AND " + ULTIMA_POR_PACIENTE
+            + "ORDER BY p.apellido, p.nombre")
+    List<MedicionResumen> findUltimasPorNutricionista(@Param("nutricionistaId") Long nutricionistaId);
+
+    // ------------------ Rangos de IMC (columna persistida e indexada) ------------------
+
+    // Todas las mediciones con IMC en el rango
+    @Query(value = SELECT_RESUMEN + "WHERE m.imc BETWEEN :min AND :max",
+            countQuery = "SELECT count(m) FROM Medicion m WHERE m.imc BETWEEN :min AND :max")
+    Page<MedicionResumen> findByImcEntre(@Param("min") double min, @Param("max") double max, Pageable pageable);
+
+    // Pacientes activos de un nutricionista cuya última medición tiene el IMC en el rango
+    @Query(SELECT_RESUMEN + "WHERE p.nutricionista.id = :nutricionistaId AND p.activo = true "
+            + "AND m.imc BETWEEN :min AND :max AND " + ULTIMA_POR_PACIENTE + "ORDER BY m.imc DESC")
+    List<MedicionResumen> findUltimasConImcEntre(@Param("nutricionistaId") Long nutricionistaId,
+                                                 @Param("min") double min, @Param("max") double max);
+
+    // Completa el IMC de filas anteriores a la columna
+    @Modifying
+    @Query("UPDATE Medicion m SET m.imc = m.peso / ((m.altura / 100.0) * (m.altura / 100.0)) "
+            + "WHERE m.imc IS NULL AND m.altura > 0")
+    int completarImcFaltante();
+
+    // ------------------ Series temporales (agregadas en la BD) ------------------
+
+    // Columnas: inicio, mediciones, suma/min/max de peso, cantidad/suma/min/max de IMC y de grasa.
+    // Se devuelven sumas y cantidades (no promedios) para poder fusionar intervalos al reducir puntos
+    String SERIE_COLUMNAS = "COUNT(*), SUM(m.peso), MIN(m.peso), MAX(m.peso), "
+            + "COUNT(m.imc), SUM(m.imc), MIN(m.imc), MAX(m.imc), "
+            + "COUNT(m.porcentaje_grasa_corporal), SUM(m.porcentaje_grasa_corporal), "
+            + "MIN(m.porcentaje_grasa_corporal), MAX(m.porcentaje_grasa_corporal) "
+            + "FROM medicion m WHERE m.paciente_id = :pacienteId ";
+
+    @Query(nativeQuery = true, value = "SELECT DATE_TRUNC('WEEK', m.fecha), " + SERIE_COLUMNAS
+            + "GROUP BY DATE_TRUNC('WEEK', m.fecha) ORDER BY 1")
+    List<Object[]> serieSemanal(@Param("pacienteId") Long pacienteId);
+
+    @Query(nativeQuery = true, value = "SELECT DATE_TRUNC('MONTH', m.fecha), " + SERIE_COLUMNAS
+            + "GROUP BY DATE_TRUNC('MONTH', m.fecha) ORDER BY 1")
+    List<Object[]> serieMensual(@Param("pacienteId") Long pacienteId);
 }
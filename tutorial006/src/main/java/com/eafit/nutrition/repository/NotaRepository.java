@@ -0,0 +1,31 @@
+package com.eafit.nutrition.repository;
+
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.model.Nota;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface NotaRepository extends JpaRepository<Nota, Long> {
+
+    String SELECT_RESUMEN = "SELECT new com.eafit.nutrition.dto.NotaResumen("
+            + "n.id, n.titulo, n.contenido, n.fechaCreacion, n.tipoNota, n.paciente.id, n.nutricionista.id) "
+            + "FROM Nota n ";
+
+    @Query(SELECT_RESUMEN + "WHERE n.id IN :ids")
+    List<NotaResumen> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Recorrido completo para reconstruir el índice de búsqueda
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESUMEN + "ORDER BY n.id")
+    Stream<NotaResumen> streamResumen();
+}
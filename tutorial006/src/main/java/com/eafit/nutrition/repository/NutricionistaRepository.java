@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface NutricionistaRepository extends JpaRepository<Nutricionista, Long> {
 
@@ -18,4 +20,8 @@ public interface NutricionistaRepository extends JpaRepository<Nutricionista, Lo
     @EntityGraph(attributePaths = {"pacientes"})
     @Query("SELECT n FROM Nutricionista n WHERE n.id = :id")
     Optional<Nutricionista> findByIdWithPacientesGraph(@Param("id") Long id);
+
+    // Ids existentes entre los dados, sin cargar las entidades (ni sus relaciones EAGER)
+    @Query("SELECT n.id FROM Nutricionista n WHERE n.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,31 @@
+package com.eafit.nutrition.repository;
+
+import com.eafit.nutrition.model.Paciente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface PacienteRepository extends JpaRepository<Paciente, Long> {
+
+    // Pacientes activos de un nutricionista (resultado guardado en el caché de consultas)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Paciente> findByNutricionistaIdAndActivoTrue(Long nutricionistaId);
+
+    // Ids existentes entre los dados, sin cargar las entidades (ni sus relaciones EAGER)
+    @Query("SELECT p.id FROM Paciente p WHERE p.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Bloquea la fila del paciente hasta el fin de la transacción, sin cargar la entidad
+    @Query(nativeQuery = true, value = "SELECT id FROM paciente WHERE id = :id FOR UPDATE")
+    Optional<Long> lockById(@Param("id") Long id);
+}
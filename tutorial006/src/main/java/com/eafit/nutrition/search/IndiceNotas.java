@@ -0,0 +1,211 @@
+package com.eafit.nutrition.search;
+
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.service.SolicitudInvalidaException;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el título y el contenido de las notas, con ranking BM25.
+ * Guarda además paciente, nutricionista, tipo y fecha de cada nota para filtrar sin ir a la BD.
+ * Se mantiene al día con {@link NotaIndiceListener} y se reconstruye al arrancar.
+ */
+@Component
+public class IndiceNotas {
+
+    // Parámetros habituales de BM25: saturación de la frecuencia y normalización por longitud
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Una palabra del título cuenta como si apareciera dos veces en el contenido
+    private static final int PESO_TITULO = 2;
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "el", "los", "las", "un", "una", "y", "o", "en", "con", "por", "para",
+            "del", "al", "que", "se", "su", "sus", "es", "lo", "le", "no", "mas", "muy");
+
+    public record Filtro(Long pacienteId, Long nutricionistaId, String tipoNota,
+                         LocalDateTime desde, LocalDateTime hasta) {
+
+        boolean acepta(Documento documento) {
+            return (pacienteId == null || pacienteId.equals(documento.pacienteId()))
+                    && (nutricionistaId == null || nutricionistaId.equals(documento.nutricionistaId()))
+                    && (tipoNota == null || tipoNota.equalsIgnoreCase(documento.tipoNota()))
+                    && (desde == null || !documento.fechaCreacion().isBefore(desde))
+                    && (hasta == null || documento.fechaCreacion().isBefore(hasta));
+        }
+    }
+
+    public record Coincidencia(Long notaId, double puntaje) {
+    }
+
+    private record Documento(Long pacienteId, Long nutricionistaId, String tipoNota,
+                             LocalDateTime fechaCreacion, Map<String, Integer> frecuencias, int longitud) {
+    }
+
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    // término -> (id de nota -> frecuencia del término en la nota)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private long longitudTotal;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Agrega la nota o reemplaza su versión anterior
+    public void indexar(NotaResumen nota) {
+        indexar(nota, true);
+    }
+
+    /**
+     * Agrega la nota solo si el índice no la tiene. La reconstrucción lee una foto de la BD:
+     * si el listener ya indexó una versión confirmada después, la de la foto es más antigua.
+     */
+    public void indexarSiFalta(NotaResumen nota) {
+        indexar(nota, false);
+    }
+
+    private void indexar(NotaResumen nota, boolean reemplazar) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : tokenizar(nota.titulo())) {
+            frecuencias.merge(termino, PESO_TITULO, Integer::sum);
+        }
+        for (String termino : tokenizar(nota.contenido())) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+        int longitud = frecuencias.values().stream().mapToInt(Integer::intValue).sum();
+        Documento documento = new Documento(nota.pacienteId(), nota.nutricionistaId(), nota.tipoNota(),
+                nota.fechaCreacion(), frecuencias, longitud);
+
+        lock.writeLock().lock();
+        try {
+            if (!reemplazar && documentos.containsKey(nota.id())) {
+                return;
+            }
+            quitar(nota.id());
+            documentos.put(nota.id(), documento);
+            longitudTotal += longitud;
+            frecuencias.forEach((termino, frecuencia) ->
+                    postings.computeIfAbsent(termino, t -> new HashMap<>()).put(nota.id(), frecuencia));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long notaId) {
+        lock.writeLock().lock();
+        try {
+            quitar(notaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Notas con al menos un término de la consulta que cumplen el filtro, ordenadas por
+     * puntaje BM25 descendente (a igual puntaje, la de mayor id primero).
+     */
+    public List<Coincidencia> buscar(String consulta, Filtro filtro, int limite) {
+        Set<String> terminos = new LinkedHashSet<>(tokenizar(consulta));
+        if (terminos.isEmpty()) {
+            throw new SolicitudInvalidaException("La búsqueda debe incluir al menos una palabra significativa");
+        }
+
+        lock.readLock().lock();
+        try {
+            int total = documentos.size();
+            if (total == 0) {
+                return List.of();
+            }
+            double longitudMedia = (double) longitudTotal / total;
+            Map<Long, Double> puntajes = new HashMap<>();
+            for (String termino : terminos) {
+                Map<Long, Integer> lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (total - lista.size() + 0.5) / (lista.size() + 0.5));
+                lista.forEach((notaId, frecuencia) -> {
+                    Documento documento = documentos.get(notaId);
+                    if (!filtro.acepta(documento)) {
+                        return;
+                    }
+                    double normalizacion = K1 * (1 - B + B * documento.longitud() / longitudMedia);
+                    puntajes.merge(notaId, idf * frecuencia * (K1 + 1) / (frecuencia + normalizacion), Double::sum);
+                });
+            }
+
+            // Montículo de tamaño "limite" con la peor coincidencia en la raíz
+            Comparator<Coincidencia> orden = Comparator.comparingDouble(Coincidencia::puntaje)
+                    .thenComparing(Coincidencia::notaId);
+            PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(orden);
+            puntajes.forEach((notaId, puntaje) -> {
+                mejores.add(new Coincidencia(notaId, puntaje));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            });
+            List<Coincidencia> resultado = new ArrayList<>(mejores);
+            resultado.sort(orden.reversed());
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Minúsculas, sin tildes y sin palabras vacías: "Nutrición" y "nutricion" son el mismo término
+    static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null) {
+            return terminos;
+        }
+        String normalizado = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String termino : SEPARADOR.split(normalizado)) {
+            if (termino.length() > 1 && !PALABRAS_VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+
+    private void quitar(Long notaId) {
+        Documento anterior = documentos.remove(notaId);
+        if (anterior == null) {
+            return;
+        }
+        longitudTotal -= anterior.longitud();
+        for (String termino : anterior.frecuencias().keySet()) {
+            Map<Long, Integer> lista = postings.get(termino);
+            if (lista != null) {
+                lista.remove(notaId);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.eafit.nutrition.search;
+
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.model.Nota;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Listener JPA de Nota: actualiza el índice de búsqueda solo cuando la transacción se confirma,
+// para que una escritura revertida no aparezca en los resultados
+@Component
+public class NotaIndiceListener {
+
+    private final IndiceNotas indice;
+
+    public NotaIndiceListener(IndiceNotas indice) {
+        this.indice = indice;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void alGuardar(Nota nota) {
+        // Se copian los valores ahora: después del commit la entidad puede estar desconectada
+        NotaResumen resumen = new NotaResumen(nota.getId(), nota.getTitulo(), nota.getContenido(),
+                nota.getFechaCreacion(), nota.getTipoNota(),
+                nota.getPaciente() != null ? nota.getPaciente().getId() : null,
+                nota.getNutricionista() != null ? nota.getNutricionista().getId() : null);
+        despuesDelCommit(() -> indice.indexar(resumen));
+    }
+
+    @PostRemove
+    void alEliminar(Nota nota) {
+        Long id = nota.getId();
+        despuesDelCommit(() -> indice.eliminar(id));
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.repository.MedicionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Carga única ("single flight") delante de MedicionRepository.findResumenById.
+ * Si llegan varias consultas del mismo id mientras una ya está en curso, esperan su resultado
+ * en lugar de ir a la BD. No es un caché: al terminar la consulta el id se libera y la
+ * siguiente petición vuelve a leer de la BD.
+ * Comparte DTO y no entidades, porque una entidad pertenece al contexto de persistencia
+ * del hilo que la cargó.
+ * Quien llama no debe abrir una transacción: cada hilo en espera retendría una conexión del pool
+ * sin usarla. La consulta del repositorio ya abre la suya.
+ */
+@Component
+public class CargaCompartidaMediciones {
+
+    private final MedicionRepository medicionRepository;
+    private final ConcurrentMap<Long, CompletableFuture<Optional<MedicionResumen>>> enCurso = new ConcurrentHashMap<>();
+
+    public CargaCompartidaMediciones(MedicionRepository medicionRepository) {
+        this.medicionRepository = medicionRepository;
+    }
+
+    public Optional<MedicionResumen> findResumenById(Long id) {
+        CompletableFuture<Optional<MedicionResumen>> propia = new CompletableFuture<>();
+        CompletableFuture<Optional<MedicionResumen>> existente = enCurso.putIfAbsent(id, propia);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        try {
+            Optional<MedicionResumen> resultado = medicionRepository.findResumenById(id);
+            propia.complete(resultado);
+            return resultado;
+        } catch (RuntimeException e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(id, propia);
+        }
+    }
+
+    private static Optional<MedicionResumen> esperar(CompletableFuture<Optional<MedicionResumen>> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            // Se relanza el mismo error que recibió la consulta original
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
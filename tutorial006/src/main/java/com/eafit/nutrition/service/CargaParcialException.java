@@ -0,0 +1,20 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.ResultadoLote;
+
+// Una carga masiva falló después de confirmar uno o más bloques: esas mediciones quedan guardadas
+// y el resultado indica cuántas, para que el cliente reenvíe solo el resto
+public class CargaParcialException extends RuntimeException {
+
+    private final ResultadoLote resultado;
+
+    public CargaParcialException(ResultadoLote resultado, RuntimeException causa) {
+        super("Se guardaron " + resultado.guardadas() + " de " + resultado.recibidas()
+                + " mediciones antes del error: " + causa.getMessage(), causa);
+        this.resultado = resultado;
+    }
+
+    public ResultadoLote getResultado() {
+        return resultado;
+    }
+}
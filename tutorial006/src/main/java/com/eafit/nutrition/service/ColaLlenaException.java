@@ -0,0 +1,9 @@
+package com.eafit.nutrition.service;
+
+// La cola de escritura asíncrona no admite más mediciones; el cliente debe reintentar más tarde
+public class ColaLlenaException extends RuntimeException {
+
+    public ColaLlenaException(int capacidad) {
+        super("La cola de escritura está llena (" + capacidad + " mediciones pendientes)");
+    }
+}
@@ -0,0 +1,295 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.EstadoEscritura;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.stream.Collectors;
+
+/**
+ * Modo de escritura asíncrona para la creación de mediciones.
+ * La petición valida sus campos, entra en una cola acotada y se responde de inmediato, sin ir a la BD;
+ * un único hilo escritor agrupa lo encolado, comprueba que existan el paciente y el nutricionista
+ * de todo el grupo y lo confirma en una transacción. Ninguna medición espera más de
+ * nutrition.async-writes.max-wait en la cola antes de intentar su commit.
+ */
+@Service
+@ConditionalOnProperty(name = "nutrition.async-writes.enabled", havingValue = "true")
+public class EscrituraAsincronaMediciones implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EscrituraAsincronaMediciones.class);
+
+    private record Solicitud(UUID id, MedicionLoteItem item, long encoladaNanos) {
+    }
+
+    private final MedicionServiceConstructor medicionService;
+    private final PacienteRepository pacienteRepository;
+    private final NutricionistaRepository nutricionistaRepository;
+    private final BlockingQueue<Solicitud> cola;
+    private final int capacidad;
+    private final int maxLote;
+    private final long ventanaNanos;
+    private final Map<UUID, EstadoEscritura> estados;
+    private final Thread escritor;
+    private volatile boolean activo = true;
+
+    // Métricas
+    private final AtomicLong aceptadas = new AtomicLong();
+    private final AtomicLong rechazadas = new AtomicLong();
+    private final AtomicLong guardadas = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong commitNanosTotal = new AtomicLong();
+    private final LongAccumulator commitNanosMax = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator esperaNanosMax = new LongAccumulator(Math::max, 0);
+
+    public EscrituraAsincronaMediciones(
+            MedicionServiceConstructor medicionService,
+            PacienteRepository pacienteRepository,
+            NutricionistaRepository nutricionistaRepository,
+            @Value("${nutrition.async-writes.queue-capacity:10000}") int capacidad,
+            @Value("${nutrition.async-writes.max-batch:500}") int maxLote,
+            @Value("${nutrition.async-writes.max-wait:50ms}") Duration maxEspera,
+            @Value("${nutrition.async-writes.status-retention:100000}") int retencion) {
+        this.medicionService = medicionService;
+        this.pacienteRepository = pacienteRepository;
+        this.nutricionistaRepository = nutricionistaRepository;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.capacidad = capacidad;
+        this.maxLote = maxLote;
+        this.ventanaNanos = maxEspera.toNanos();
+        // Conserva los estados más recientes; los más antiguos dejan de poder consultarse
+        this.estados = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, EstadoEscritura> eldest) {
+                return size() > retencion;
+            }
+        };
+        this.escritor = new Thread(this::escribir, "mediciones-async-writer");
+        this.escritor.start();
+    }
+
+    // Valida los campos de la medición y la encola. Lanza ColaLlenaException si no hay espacio.
+    // Un paciente o nutricionista inexistente no se detecta aquí: la medición queda FALLIDA
+    public EstadoEscritura encolar(Long pacienteId, Long nutricionistaId, Medicion medicion) {
+        if (medicion.getFecha() == null || medicion.getPeso() == null || medicion.getAltura() == null) {
+            throw new SolicitudInvalidaException("La medición debe incluir fecha, peso y altura");
+        }
+        if (!activo) {
+            throw new ColaLlenaException(capacidad);
+        }
+
+        MedicionLoteItem item = new MedicionLoteItem(pacienteId, nutricionistaId, medicion.getFecha(),
+                medicion.getPeso(), medicion.getAltura(), medicion.getCircunferenciaCintura(),
+                medicion.getCircunferenciaCadera(), medicion.getPorcentajeGrasaCorporal());
+        UUID id = UUID.randomUUID();
+        EstadoEscritura estado = EstadoEscritura.pendiente(id);
+        // El estado se registra antes de encolar para que el escritor siempre lo encuentre
+        actualizarEstado(estado);
+        if (!cola.offer(new Solicitud(id, item, System.nanoTime()))) {
+            synchronized (estados) {
+                estados.remove(id);
+            }
+            rechazadas.incrementAndGet();
+            throw new ColaLlenaException(capacidad);
+        }
+        aceptadas.incrementAndGet();
+        return estado;
+    }
+
+    public Optional<EstadoEscritura> estado(UUID id) {
+        synchronized (estados) {
+            return Optional.ofNullable(estados.get(id));
+        }
+    }
+
+    public Map<String, Object> estadisticas() {
+        long totalLotes = lotes.get();
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("queueDepth", cola.size());
+        valores.put("queueCapacity", capacidad);
+        valores.put("accepted", aceptadas.get());
+        valores.put("rejected", rechazadas.get());
+        valores.put("committed", guardadas.get());
+        valores.put("failed", fallidas.get());
+        valores.put("batches", totalLotes);
+        valores.put("commitLatencyAvgMs", totalLotes > 0 ? commitNanosTotal.get() / totalLotes / 1e6 : 0.0);
+        valores.put("commitLatencyMaxMs", commitNanosMax.get() / 1e6);
+        valores.put("enqueueToCommitMaxMs", esperaNanosMax.get() / 1e6);
+        return valores;
+    }
+
+    // Las mismas cifras de estadisticas() como métricas nutrition.async-writes.*
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("nutrition.async-writes.queue.depth", cola, BlockingQueue::size)
+                .description("Mediciones en cola pendientes de commit")
+                .register(registry);
+        Gauge.builder("nutrition.async-writes.queue.capacity", () -> capacidad)
+                .register(registry);
+        contador(registry, "accepted", aceptadas);
+        contador(registry, "rejected", rechazadas);
+        contador(registry, "committed", guardadas);
+        contador(registry, "failed", fallidas);
+        FunctionTimer.builder("nutrition.async-writes.commit", this,
+                        escritura -> escritura.lotes.get(),
+                        escritura -> escritura.commitNanosTotal.get(), TimeUnit.NANOSECONDS)
+                .description("Duración del commit de cada grupo")
+                .register(registry);
+        TimeGauge.builder("nutrition.async-writes.commit.max", commitNanosMax, TimeUnit.NANOSECONDS,
+                        LongAccumulator::get)
+                .register(registry);
+        TimeGauge.builder("nutrition.async-writes.enqueue-to-commit.max", esperaNanosMax, TimeUnit.NANOSECONDS,
+                        LongAccumulator::get)
+                .register(registry);
+    }
+
+    private static void contador(MeterRegistry registry, String resultado, AtomicLong valor) {
+        FunctionCounter.builder("nutrition.async-writes.requests", valor, AtomicLong::get)
+                .tag("result", resultado)
+                .register(registry);
+    }
+
+    // Deja de aceptar, espera a que el escritor vacíe la cola y termina
+    @PreDestroy
+    public void cerrar() throws InterruptedException {
+        activo = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+        if (!cola.isEmpty()) {
+            log.warn("{} mediciones asíncronas quedaron sin guardar al cerrar", cola.size());
+        }
+    }
+
+    private void escribir() {
+        List<Solicitud> lote = new ArrayList<>(maxLote);
+        try {
+            while (activo || !cola.isEmpty()) {
+                Solicitud primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                // Junta lo que llegue hasta llenar el lote o agotar la ventana de la primera solicitud
+                long limite = primera.encoladaNanos() + ventanaNanos;
+                while (lote.size() < maxLote) {
+                    cola.drainTo(lote, maxLote - lote.size());
+                    long restante = limite - System.nanoTime();
+                    if (lote.size() >= maxLote || restante <= 0) {
+                        break;
+                    }
+                    Solicitud siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+                confirmar(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void confirmar(List<Solicitud> lote) {
+        long inicio = System.nanoTime();
+        List<Solicitud> validas = conReferencias(lote);
+        if (!validas.isEmpty()) {
+            guardar(validas);
+        }
+        long fin = System.nanoTime();
+        lotes.incrementAndGet();
+        commitNanosTotal.addAndGet(fin - inicio);
+        commitNanosMax.accumulate(fin - inicio);
+        esperaNanosMax.accumulate(fin - lote.get(0).encoladaNanos());
+    }
+
+    // Una consulta por tabla para todo el grupo. Las mediciones sin paciente o nutricionista quedan
+    // FALLIDA; si la consulta falla se intenta guardar el grupo y el reintento fila a fila decide
+    private List<Solicitud> conReferencias(List<Solicitud> lote) {
+        Set<Long> pacientes;
+        Set<Long> nutricionistas;
+        try {
+            pacientes = pacienteRepository.findExistingIds(
+                    lote.stream().map(s -> s.item().pacienteId()).collect(Collectors.toSet()));
+            nutricionistas = nutricionistaRepository.findExistingIds(
+                    lote.stream().map(s -> s.item().nutricionistaId()).collect(Collectors.toSet()));
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron comprobar las referencias de un grupo de {} mediciones", lote.size(), e);
+            return lote;
+        }
+        List<Solicitud> validas = new ArrayList<>(lote.size());
+        for (Solicitud solicitud : lote) {
+            MedicionLoteItem item = solicitud.item();
+            if (!pacientes.contains(item.pacienteId())) {
+                fallar(solicitud, "Paciente no encontrado con id: " + item.pacienteId());
+            } else if (!nutricionistas.contains(item.nutricionistaId())) {
+                fallar(solicitud, "Nutricionista no encontrado con id: " + item.nutricionistaId());
+            } else {
+                validas.add(solicitud);
+            }
+        }
+        return validas;
+    }
+
+    private void guardar(List<Solicitud> lote) {
+        try {
+            List<Long> ids = medicionService.guardarLote(lote.stream().map(Solicitud::item).toList());
+            for (int i = 0; i < lote.size(); i++) {
+                actualizarEstado(new EstadoEscritura(lote.get(i).id(), EstadoEscritura.GUARDADA, ids.get(i), null));
+            }
+            guardadas.addAndGet(lote.size());
+        } catch (RuntimeException e) {
+            // El grupo se revirtió completo: se reintenta cada medición por separado
+            // para que una fila inválida no haga fallar a las demás
+            log.warn("Falló el commit de un grupo de {} mediciones, se reintentan una a una", lote.size(), e);
+            for (Solicitud solicitud : lote) {
+                try {
+                    Long medicionId = medicionService.guardarLote(List.of(solicitud.item())).get(0);
+                    actualizarEstado(new EstadoEscritura(solicitud.id(), EstadoEscritura.GUARDADA, medicionId, null));
+                    guardadas.incrementAndGet();
+                } catch (RuntimeException individual) {
+                    fallar(solicitud, individual.getMessage());
+                }
+            }
+        }
+    }
+
+    private void fallar(Solicitud solicitud, String error) {
+        actualizarEstado(new EstadoEscritura(solicitud.id(), EstadoEscritura.FALLIDA, null, error));
+        fallidas.incrementAndGet();
+    }
+
+    private void actualizarEstado(EstadoEscritura estado) {
+        synchronized (estados) {
+            estados.put(estado.id(), estado);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.PuntoMedicion;
+import com.eafit.nutrition.model.EstadisticaPaciente;
+import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.repository.EstadisticaPacienteRepository;
+import com.eafit.nutrition.repository.MedicionRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Mantiene las estadísticas de cada paciente al registrar mediciones, de modo que
+// leerlas no requiere recorrer su historial
+@Service
+public class EstadisticaPacienteService {
+
+    private final EstadisticaPacienteRepository estadisticaRepository;
+    private final MedicionRepository medicionRepository;
+    private final PacienteRepository pacienteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public EstadisticaPacienteService(
+            EstadisticaPacienteRepository estadisticaRepository,
+            MedicionRepository medicionRepository,
+            PacienteRepository pacienteRepository,
+            PlatformTransactionManager transactionManager) {
+        this.estadisticaRepository = estadisticaRepository;
+        this.medicionRepository = medicionRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Se une a la transacción que guarda la medición: ambas se confirman o se revierten juntas
+    @Transactional
+    public void registrar(Long pacienteId, Medicion medicion) {
+        bloquear(pacienteId).registrar(medicion.getFecha(), medicion.getPeso(), medicion.getImc());
+    }
+
+    // Variante para cargas masivas: una fila bloqueada por paciente. Los pacientes se
+    // recorren en orden de id para que dos bloques concurrentes no se bloqueen mutuamente
+    @Transactional
+    public void registrar(Map<Long, List<PuntoMedicion>> puntosPorPaciente) {
+        puntosPorPaciente.keySet().stream().sorted().forEach(pacienteId -> {
+            EstadisticaPaciente estadistica = bloquear(pacienteId);
+            for (PuntoMedicion punto : puntosPorPaciente.get(pacienteId)) {
+                estadistica.registrar(punto.fecha(), punto.peso(), punto.imc());
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public EstadisticaPaciente obtener(Long pacienteId) {
+        return estadisticaRepository.findById(pacienteId).orElseGet(() -> {
+            if (!pacienteRepository.existsById(pacienteId)) {
+                throw new SolicitudInvalidaException("Paciente no encontrado con id: " + pacienteId);
+            }
+            return new EstadisticaPaciente(pacienteId);
+        });
+    }
+
+    // Recalcula desde cero con las mediciones guardadas (por ejemplo tras cargas fuera de la API)
+    @Transactional
+    public EstadisticaPaciente reconstruir(Long pacienteId) {
+        if (!pacienteRepository.existsById(pacienteId)) {
+            throw new SolicitudInvalidaException("Paciente no encontrado con id: " + pacienteId);
+        }
+        EstadisticaPaciente estadistica = bloquear(pacienteId);
+        estadistica.reiniciar();
+        try (Stream<PuntoMedicion> puntos = medicionRepository.streamPuntos(pacienteId)) {
+            puntos.forEach(punto -> estadistica.registrar(punto.fecha(), punto.peso(), punto.imc()));
+        }
+        return estadistica;
+    }
+
+    // Una transacción por paciente para no mantener bloqueos durante todo el recorrido
+    public int reconstruirTodas() {
+        return reconstruir(medicionRepository.findPacienteIdsConMediciones());
+    }
+
+    // Solo los pacientes con mediciones y sin fila de estadísticas (p. ej. datos anteriores a esta tabla)
+    public int reconstruirFaltantes() {
+        return reconstruir(medicionRepository.findPacienteIdsSinEstadisticas());
+    }
+
+    private int reconstruir(List<Long> pacienteIds) {
+        for (Long pacienteId : pacienteIds) {
+            transactionTemplate.executeWithoutResult(status -> reconstruir(pacienteId));
+        }
+        return pacienteIds.size();
+    }
+
+    // Bloquea la fila de estadísticas del paciente; si aún no existe la crea en la misma transacción.
+    // La creación se serializa con el bloqueo de la fila del paciente: quien llega segundo espera
+    // al commit del primero y, al volver a buscar, encuentra la fila ya creada
+    private EstadisticaPaciente bloquear(Long pacienteId) {
+        return estadisticaRepository.findForUpdate(pacienteId).orElseGet(() -> {
+            pacienteRepository.lockById(pacienteId).orElseThrow(() ->
+                    new SolicitudInvalidaException("Paciente no encontrado con id: " + pacienteId));
+            return estadisticaRepository.findForUpdate(pacienteId)
+                    .orElseGet(() -> estadisticaRepository.saveAndFlush(new EstadisticaPaciente(pacienteId)));
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.repository.MedicionRepository;
+import com.eafit.nutrition.repository.NotaRepository;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Exportaciones CSV completas de un nutricionista.
+ * Se recorre un cursor de solo avance con fetch size fijo y cada fila se escribe al Writer
+ * en cuanto llega. Las consultas proyectan a DTO, así que el contexto de persistencia
+ * no acumula entidades y la memoria no depende del número de filas.
+ */
+@Service
+public class ExportacionService {
+
+    private static final String CABECERA_MEDICIONES = "id,fecha,pacienteId,pacienteNombre,pacienteApellido,"
+            + "peso,altura,imc,circunferenciaCintura,circunferenciaCadera,porcentajeGrasaCorporal";
+    private static final String CABECERA_NOTAS = "id,fechaCreacion,pacienteId,tipoNota,titulo,contenido";
+
+    private final EntityManager entityManager;
+    private final NutricionistaRepository nutricionistaRepository;
+    private final int fetchSize;
+
+    public ExportacionService(EntityManager entityManager,
+                              NutricionistaRepository nutricionistaRepository,
+                              @Value("${nutrition.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.nutricionistaRepository = nutricionistaRepository;
+        this.fetchSize = fetchSize;
+    }
+
+    public void validarNutricionista(Long nutricionistaId) {
+        if (nutricionistaRepository.findExistingIds(Set.of(nutricionistaId)).isEmpty()) {
+            throw new SolicitudInvalidaException("Nutricionista no encontrado con id: " + nutricionistaId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarMediciones(Long nutricionistaId, Writer writer) {
+        String consulta = MedicionRepository.SELECT_RESUMEN + "WHERE n.id = :nutricionistaId ORDER BY m.fecha, m.id";
+        return exportar(consulta, MedicionResumen.class, nutricionistaId, writer, CABECERA_MEDICIONES, m -> fila(
+                m.id(), m.fecha(), m.pacienteId(), m.pacienteNombre(), m.pacienteApellido(),
+                m.peso(), m.altura(), m.imc(), m.circunferenciaCintura(), m.circunferenciaCadera(),
+                m.porcentajeGrasaCorporal()));
+    }
+
+    @Transactional(readOnly = true)
+    public long exportarNotas(Long nutricionistaId, Writer writer) {
+        String consulta = NotaRepository.SELECT_RESUMEN
+                + "WHERE n.nutricionista.id = :nutricionistaId ORDER BY n.fechaCreacion, n.id";
+        return exportar(consulta, NotaResumen.class, nutricionistaId, writer, CABECERA_NOTAS, n -> fila(
+                n.id(), n.fechaCreacion(), n.pacienteId(), n.tipoNota(), n.titulo(), n.contenido()));
+    }
+
+    private <T> long exportar(String consulta, Class<T> tipo, Long nutricionistaId, Writer writer,
+                              String cabecera, Function<T, String> aFila) {
+        Session session = entityManager.unwrap(Session.class);
+        long filas = 0;
+        try (ScrollableResults<T> cursor = session.createSelectionQuery(consulta, tipo)
+                .setParameter("nutricionistaId", nutricionistaId)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            writer.write(cabecera);
+            writer.write("\r\n");
+            while (cursor.next()) {
+                writer.write(aFila.apply(cursor.get()));
+                writer.write("\r\n");
+                filas++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return filas;
+    }
+
+    private static String fila(Object... valores) {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                linea.append(',');
+            }
+            if (valores[i] != null) {
+                linea.append(escapar(valores[i].toString()));
+            }
+        }
+        return linea.toString();
+    }
+
+    // RFC 4180: entre comillas si contiene separador, comillas o saltos de línea
+    private static String escapar(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
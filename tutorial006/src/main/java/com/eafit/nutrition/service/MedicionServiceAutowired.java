@@ -1,9 +1,12 @@
 package com.eafit.nutrition.service;
 
+import com.eafit.nutrition.dto.MedicionResumen;
 import com.eafit.nutrition.model.Medicion;
 import com.eafit.nutrition.repository.MedicionRepository;
 import com.eafit.nutrition.repository.NutricionistaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,11 +24,23 @@ public class MedicionServiceAutowired {
     @Autowired
     private NutricionistaRepository nutricionistaRepository;
 
+    @Autowired
+    private CargaCompartidaMediciones cargaCompartida;
+
     @Transactional(readOnly = true)
     public List<Medicion> findAll() {
         return medicionRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Page<MedicionResumen> findPage(Pageable pageable) {
+        return medicionRepository.findAllResumen(pageable);
+    }
+
+    public Optional<MedicionResumen> findResumenById(Long id) {
+        return cargaCompartida.findResumenById(id);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Medicion> findById(Long id) {
         return medicionRepository.findById(id);
@@ -1,28 +1,66 @@
 package com.eafit.nutrition.service;
 
+import com.eafit.nutrition.dto.KeysetPage;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.dto.PuntoMedicion;
+import com.eafit.nutrition.dto.ResultadoLote;
 import com.eafit.nutrition.model.Medicion;
 import com.eafit.nutrition.model.Paciente;
 import com.eafit.nutrition.model.Nutricionista;
 import com.eafit.nutrition.repository.MedicionRepository;
 import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class MedicionServiceConstructor {
 
     private final MedicionRepository medicionRepository;
     private final NutricionistaRepository nutricionistaRepository;
+    private final PacienteRepository pacienteRepository;
+    private final EstadisticaPacienteService estadisticaService;
+    private final CargaCompartidaMediciones cargaCompartida;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     // Constructor con inyección de dependencias
     public MedicionServiceConstructor(
             MedicionRepository medicionRepository,
-            NutricionistaRepository nutricionistaRepository) {
+            NutricionistaRepository nutricionistaRepository,
+            PacienteRepository pacienteRepository,
+            EstadisticaPacienteService estadisticaService,
+            CargaCompartidaMediciones cargaCompartida,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${nutrition.batch.chunk-size:500}") int batchChunkSize) {
         this.medicionRepository = medicionRepository;
         this.nutricionistaRepository = nutricionistaRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.estadisticaService = estadisticaService;
+        this.cargaCompartida = cargaCompartida;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchChunkSize = batchChunkSize;
     }
 
     @Transactional(readOnly = true)
@@ -30,6 +68,53 @@ public class MedicionServiceConstructor {
         return medicionRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Page<MedicionResumen> findPage(Pageable pageable) {
+        return medicionRepository.findAllResumen(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<MedicionResumen> findAfter(Long afterId, int size) {
+        List<MedicionResumen> content = medicionRepository.findResumenAfter(
+                afterId != null ? afterId : 0L, Limit.of(size));
+        Long nextAfterId = content.size() == size ? content.get(content.size() - 1).id() : null;
+        return new KeysetPage<>(content, nextAfterId);
+    }
+
+    // Última medición de cada paciente del nutricionista (una consulta para toda la cartera)
+    @Transactional(readOnly = true)
+    public List<MedicionResumen> findUltimasPorNutricionista(Long nutricionistaId) {
+        return medicionRepository.findUltimasPorNutricionista(nutricionistaId);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<MedicionResumen> findByImcEntre(double min, double max, Pageable pageable) {
+        return medicionRepository.findByImcEntre(min, max, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MedicionResumen> findUltimasConImcEntre(Long nutricionistaId, double min, double max) {
+        return medicionRepository.findUltimasConImcEntre(nutricionistaId, min, max);
+    }
+
+    @Transactional
+    public int completarImcFaltante() {
+        return medicionRepository.completarImcFaltante();
+    }
+
+    public Optional<MedicionResumen> findResumenById(Long id) {
+        return cargaCompartida.findResumenById(id);
+    }
+
+    // Recorre todas las mediciones con un cursor. Los DTO no quedan en el contexto
+    // de persistencia, así que la memoria se mantiene constante
+    @Transactional(readOnly = true)
+    public void forEachResumen(Consumer<MedicionResumen> action) {
+        try (Stream<MedicionResumen> mediciones = medicionRepository.streamResumen()) {
+            mediciones.forEach(action);
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<Medicion> findById(Long id) {
         return medicionRepository.findById(id);
@@ -38,13 +123,96 @@ public class MedicionServiceConstructor {
     // ✅ Nuevo método createMedicion
     @Transactional
     public Medicion createMedicion(Long pacienteId, Long nutricionistaId, Medicion medicion) {
-        // Buscar nutricionista
+        // Buscar paciente y nutricionista
+        Paciente paciente = pacienteRepository.findById(pacienteId)
+                .orElseThrow(() -> new SolicitudInvalidaException("Paciente no encontrado con id: " + pacienteId));
         Nutricionista nutricionista = nutricionistaRepository.findById(nutricionistaId)
-                .orElseThrow(() -> new IllegalArgumentException("Nutricionista no encontrado con id: " + nutricionistaId));
+                .orElseThrow(() -> new SolicitudInvalidaException("Nutricionista no encontrado con id: " + nutricionistaId));
 
+        medicion.setPaciente(paciente);
         medicion.setNutricionista(nutricionista);
 
-        // Guardar en BD
-        return medicionRepository.save(medicion);
+        // Guardar en BD y actualizar las estadísticas del paciente en la misma transacción
+        Medicion guardada = medicionRepository.save(medicion);
+        estadisticaService.registrar(pacienteId, guardada);
+        return guardada;
+    }
+
+    // Carga masiva: valida todas las referencias con una consulta por tipo y luego guarda
+    // en bloques de nutrition.batch.chunk-size, cada uno en su propia transacción.
+    // Con la secuencia pooled de Medicion, Hibernate envía los INSERT en lotes JDBC.
+    // No es atómica: si falla un bloque, los anteriores ya están confirmados y se informa
+    // cuántas mediciones quedaron guardadas con CargaParcialException.
+    public ResultadoLote createMediciones(List<MedicionLoteItem> items) {
+        Set<Long> pacienteIds = new HashSet<>();
+        Set<Long> nutricionistaIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            MedicionLoteItem item = items.get(i);
+            if (item.pacienteId() == null || item.nutricionistaId() == null
+                    || item.fecha() == null || item.peso() == null || item.altura() == null) {
+                throw new SolicitudInvalidaException(
+                        "La medición " + i + " debe incluir pacienteId, nutricionistaId, fecha, peso y altura");
+            }
+            pacienteIds.add(item.pacienteId());
+            nutricionistaIds.add(item.nutricionistaId());
+        }
+        if (items.isEmpty()) {
+            return new ResultadoLote(0, 0, 0);
+        }
+
+        Set<Long> pacientesExistentes = pacienteRepository.findExistingIds(pacienteIds);
+        Set<Long> nutricionistasExistentes = nutricionistaRepository.findExistingIds(nutricionistaIds);
+        pacienteIds.removeAll(pacientesExistentes);
+        nutricionistaIds.removeAll(nutricionistasExistentes);
+        if (!pacienteIds.isEmpty()) {
+            throw new SolicitudInvalidaException("Pacientes no encontrados: " + pacienteIds);
+        }
+        if (!nutricionistaIds.isEmpty()) {
+            throw new SolicitudInvalidaException("Nutricionistas no encontrados: " + nutricionistaIds);
+        }
+
+        int guardadas = 0;
+        int bloques = 0;
+        for (int desde = 0; desde < items.size(); desde += batchChunkSize) {
+            List<MedicionLoteItem> bloque = items.subList(desde, Math.min(desde + batchChunkSize, items.size()));
+            try {
+                transactionTemplate.execute(status -> guardarBloque(bloque));
+            } catch (RuntimeException e) {
+                if (guardadas == 0) {
+                    throw e;
+                }
+                throw new CargaParcialException(new ResultadoLote(items.size(), guardadas, bloques), e);
+            }
+            guardadas += bloque.size();
+            bloques++;
+        }
+        return new ResultadoLote(items.size(), guardadas, bloques);
+    }
+
+    // Guarda mediciones ya validadas en una sola transacción y devuelve sus ids en el mismo orden
+    public List<Long> guardarLote(List<MedicionLoteItem> lote) {
+        return transactionTemplate.execute(status -> guardarBloque(lote));
+    }
+
+    private List<Long> guardarBloque(List<MedicionLoteItem> bloque) {
+        Map<Long, List<PuntoMedicion>> puntosPorPaciente = new HashMap<>();
+        List<Long> ids = new ArrayList<>(bloque.size());
+        for (MedicionLoteItem item : bloque) {
+            Medicion medicion = new Medicion(item.fecha(), item.peso(), item.altura(),
+                    // Referencias ya validadas: no se consulta la BD por cada fila
+                    entityManager.getReference(Paciente.class, item.pacienteId()),
+                    entityManager.getReference(Nutricionista.class, item.nutricionistaId()));
+            medicion.setCircunferenciaCintura(item.circunferenciaCintura());
+            medicion.setCircunferenciaCadera(item.circunferenciaCadera());
+            medicion.setPorcentajeGrasaCorporal(item.porcentajeGrasaCorporal());
+            entityManager.persist(medicion);
+            ids.add(medicion.getId());
+            puntosPorPaciente.computeIfAbsent(item.pacienteId(), id -> new ArrayList<>())
+                    .add(new PuntoMedicion(medicion.getFecha(), medicion.getPeso(), medicion.getImc()));
+        }
+        estadisticaService.registrar(puntosPorPaciente);
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
     }
 }
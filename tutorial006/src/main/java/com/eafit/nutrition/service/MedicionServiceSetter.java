@@ -1,9 +1,12 @@
 package com.eafit.nutrition.service;
 
+import com.eafit.nutrition.dto.MedicionResumen;
 import com.eafit.nutrition.model.Medicion;
 import com.eafit.nutrition.repository.MedicionRepository;
 import com.eafit.nutrition.repository.NutricionistaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +19,7 @@ public class MedicionServiceSetter {
     // Declaración de los repositorios necesarios
     private MedicionRepository medicionRepository;
     private NutricionistaRepository nutricionistaRepository;
+    private CargaCompartidaMediciones cargaCompartida;
 
     // ✅ Setter para inyectar el MedicionRepository
     @Autowired
@@ -29,11 +33,26 @@ public class MedicionServiceSetter {
         this.nutricionistaRepository = nutricionistaRepository;
     }
 
+    // ✅ Setter para inyectar la carga compartida de mediciones
+    @Autowired
+    public void setCargaCompartida(CargaCompartidaMediciones cargaCompartida) {
+        this.cargaCompartida = cargaCompartida;
+    }
+
     @Transactional(readOnly = true)
     public List<Medicion> findAll() {
         return medicionRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Page<MedicionResumen> findPage(Pageable pageable) {
+        return medicionRepository.findAllResumen(pageable);
+    }
+
+    public Optional<MedicionResumen> findResumenById(Long id) {
+        return cargaCompartida.findResumenById(id);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Medicion> findById(Long id) {
         return medicionRepository.findById(id);
@@ -0,0 +1,59 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.NotaResultado;
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.repository.NotaRepository;
+import com.eafit.nutrition.search.IndiceNotas;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class NotaService {
+
+    private final NotaRepository notaRepository;
+    private final IndiceNotas indice;
+
+    public NotaService(NotaRepository notaRepository, IndiceNotas indice) {
+        this.notaRepository = notaRepository;
+        this.indice = indice;
+    }
+
+    // El índice decide qué notas y en qué orden; la BD solo aporta el texto de las que se devuelven
+    @Transactional(readOnly = true)
+    public List<NotaResultado> buscar(String consulta, IndiceNotas.Filtro filtro, int limite) {
+        List<IndiceNotas.Coincidencia> coincidencias = indice.buscar(consulta, filtro, limite);
+        if (coincidencias.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, NotaResumen> notas = notaRepository.findResumenByIdIn(
+                        coincidencias.stream().map(IndiceNotas.Coincidencia::notaId).toList())
+                .stream()
+                .collect(Collectors.toMap(NotaResumen::id, Function.identity()));
+
+        List<NotaResultado> resultado = new ArrayList<>(coincidencias.size());
+        for (IndiceNotas.Coincidencia coincidencia : coincidencias) {
+            NotaResumen nota = notas.get(coincidencia.notaId());
+            // Puede faltar si se eliminó entre la búsqueda y la consulta
+            if (nota != null) {
+                resultado.add(new NotaResultado(coincidencia.puntaje(), nota));
+            }
+        }
+        return resultado;
+    }
+
+    // Carga todas las notas guardadas en el índice, sin pisar las que el listener ya actualizó
+    @Transactional(readOnly = true)
+    public int reindexar() {
+        try (Stream<NotaResumen> notas = notaRepository.streamResumen()) {
+            notas.forEach(indice::indexarSiFalta);
+        }
+        return indice.size();
+    }
+}
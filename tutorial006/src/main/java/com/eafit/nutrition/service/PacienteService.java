@@ -0,0 +1,137 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.SeriePunto;
+import com.eafit.nutrition.repository.MedicionRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class PacienteService {
+
+    private final PacienteRepository pacienteRepository;
+    private final MedicionRepository medicionRepository;
+
+    public PacienteService(PacienteRepository pacienteRepository, MedicionRepository medicionRepository) {
+        this.pacienteRepository = pacienteRepository;
+        this.medicionRepository = medicionRepository;
+    }
+
+    // Serie de peso, IMC y grasa corporal por semana o mes, calculada con GROUP BY en la BD.
+    // Si hay más intervalos que "puntos", se fusionan intervalos consecutivos hasta no superarlo
+    @Transactional(readOnly = true)
+    public List<SeriePunto> serieTemporal(Long pacienteId, String bucket, Integer puntos) {
+        if (!pacienteRepository.existsById(pacienteId)) {
+            throw new SolicitudInvalidaException("Paciente no encontrado con id: " + pacienteId);
+        }
+        List<Object[]> filas = switch (bucket) {
+            case "week" -> medicionRepository.serieSemanal(pacienteId);
+            case "month" -> medicionRepository.serieMensual(pacienteId);
+            default -> throw new SolicitudInvalidaException("bucket debe ser week o month");
+        };
+        if (puntos != null && puntos < 1) {
+            throw new SolicitudInvalidaException("puntos debe ser mayor que cero");
+        }
+
+        int porGrupo = puntos == null || filas.size() <= puntos ? 1 : (filas.size() + puntos - 1) / puntos;
+        List<SeriePunto> serie = new ArrayList<>();
+        for (int desde = 0; desde < filas.size(); desde += porGrupo) {
+            Acumulado acumulado = new Acumulado(inicio(filas.get(desde)[0]));
+            for (int i = desde; i < Math.min(desde + porGrupo, filas.size()); i++) {
+                acumulado.sumar(filas.get(i));
+            }
+            serie.add(acumulado.toPunto());
+        }
+        return serie;
+    }
+
+    private static LocalDate inicio(Object valor) {
+        if (valor instanceof LocalDate fecha) {
+            return fecha;
+        }
+        if (valor instanceof LocalDateTime fechaHora) {
+            return fechaHora.toLocalDate();
+        }
+        if (valor instanceof OffsetDateTime fechaHora) {
+            return fechaHora.toLocalDate();
+        }
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        if (valor instanceof java.sql.Date fecha) {
+            return fecha.toLocalDate();
+        }
+        throw new IllegalStateException("Tipo de fecha no soportado: " + valor);
+    }
+
+    // Fusiona filas agregadas (sumas y cantidades) de uno o más intervalos
+    private static final class Acumulado {
+
+        private final LocalDate inicio;
+        private long mediciones;
+        private double sumaPeso;
+        private Double pesoMin;
+        private Double pesoMax;
+        private long conImc;
+        private double sumaImc;
+        private Double imcMin;
+        private Double imcMax;
+        private long conGrasa;
+        private double sumaGrasa;
+        private Double grasaMin;
+        private Double grasaMax;
+
+        Acumulado(LocalDate inicio) {
+            this.inicio = inicio;
+        }
+
+        void sumar(Object[] fila) {
+            mediciones += ((Number) fila[1]).longValue();
+            sumaPeso += numero(fila[2], 0.0);
+            pesoMin = min(pesoMin, fila[3]);
+            pesoMax = max(pesoMax, fila[4]);
+            conImc += ((Number) fila[5]).longValue();
+            sumaImc += numero(fila[6], 0.0);
+            imcMin = min(imcMin, fila[7]);
+            imcMax = max(imcMax, fila[8]);
+            conGrasa += ((Number) fila[9]).longValue();
+            sumaGrasa += numero(fila[10], 0.0);
+            grasaMin = min(grasaMin, fila[11]);
+            grasaMax = max(grasaMax, fila[12]);
+        }
+
+        SeriePunto toPunto() {
+            return new SeriePunto(inicio, mediciones,
+                    mediciones > 0 ? sumaPeso / mediciones : null, pesoMin, pesoMax,
+                    conImc > 0 ? sumaImc / conImc : null, imcMin, imcMax,
+                    conGrasa > 0 ? sumaGrasa / conGrasa : null, grasaMin, grasaMax);
+        }
+
+        private static double numero(Object valor, double porDefecto) {
+            return valor != null ? ((Number) valor).doubleValue() : porDefecto;
+        }
+
+        private static Double min(Double actual, Object valor) {
+            if (valor == null) {
+                return actual;
+            }
+            double nuevo = ((Number) valor).doubleValue();
+            return actual == null ? nuevo : Math.min(actual, nuevo);
+        }
+
+        private static Double max(Double actual, Object valor) {
+            if (valor == null) {
+                return actual;
+            }
+            double nuevo = ((Number) valor).doubleValue();
+            return actual == null ? nuevo : Math.max(actual, nuevo);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.eafit.nutrition.service;
+
+// Datos enviados por el cliente que no se pueden procesar: referencias inexistentes,
+// campos obligatorios ausentes o parámetros fuera de rango. Se responde con 400
+public class SolicitudInvalidaException extends RuntimeException {
+
+    public SolicitudInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,77 @@
+package com.eafit.nutrition.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrutamiento con dos BD H2 en memoria. La "réplica" es otra base que enlaza las tablas del
+ * primario (LINK_SCHEMA), así ve los mismos datos pero DATABASE() devuelve su propio nombre.
+ * Usa sus propias BD porque create-drop borraría el esquema de los demás contextos al cerrar.
+ */
+@SpringBootTest(properties = {
+        "nutrition.datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:rutas_primario",
+        "nutrition.datasource.replica.jdbc-url=jdbc:h2:mem:rutas_replica;"
+                + "INIT=CALL LINK_SCHEMA('PUBLIC', 'org.h2.Driver', 'jdbc:h2:mem:rutas_primario', 'sa', '', 'PUBLIC')",
+        // Una sola conexión: cada conexión nueva vuelve a crear los enlaces
+        "nutrition.datasource.replica.maximum-pool-size=1"})
+class ReadWriteRoutingTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primario;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @Test
+    void lasTransaccionesDeSoloLecturaUsanLaReplica() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        lectura.executeWithoutResult(status -> {
+            assertThat(baseDeDatos()).isEqualToIgnoringCase("rutas_replica");
+            assertThat(replica.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            // Las tablas enlazadas devuelven los datos del primario
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM nutricionista", Long.class)).isNotNull();
+        });
+    }
+
+    @Test
+    void lasEscriturasUsanElPrimario() {
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+
+        escritura.executeWithoutResult(status -> {
+            assertThat(baseDeDatos()).isEqualToIgnoringCase("rutas_primario");
+            assertThat(primario.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            if (replica.getHikariPoolMXBean() != null) {
+                assertThat(replica.getHikariPoolMXBean().getActiveConnections()).isZero();
+            }
+        });
+    }
+
+    @Test
+    void losPoolsConservanSuNombre() {
+        assertThat(primario.getPoolName()).isEqualTo("primary");
+        assertThat(replica.getPoolName()).isEqualTo("replica");
+    }
+
+    private String baseDeDatos() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eafit.nutrition.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReplicaFailoverDataSourceTests {
+
+    private static final Duration ESPERA = Duration.ofMillis(300);
+
+    private final DataSource replica = mock(DataSource.class);
+    private final DataSource primario = mock(DataSource.class);
+    private final Connection deReplica = mock(Connection.class);
+    private final Connection dePrimario = mock(Connection.class);
+    private ReplicaFailoverDataSource dataSource;
+
+    @BeforeEach
+    void crear() throws SQLException {
+        when(primario.getConnection()).thenReturn(dePrimario);
+        when(primario.getConnection("lector", "clave")).thenReturn(dePrimario);
+        dataSource = new ReplicaFailoverDataSource(replica, primario, ESPERA);
+    }
+
+    @Test
+    void conLaReplicaDisponibleNoTocaElPrimario() throws SQLException {
+        when(replica.getConnection()).thenReturn(deReplica);
+
+        assertThat(dataSource.getConnection()).isSameAs(deReplica);
+        verifyNoInteractions(primario);
+    }
+
+    @Test
+    void siLaReplicaFallaLeeDelPrimarioDuranteLaEspera() throws Exception {
+        when(replica.getConnection()).thenThrow(new SQLException("réplica caída")).thenReturn(deReplica);
+
+        assertThat(dataSource.getConnection()).isSameAs(dePrimario);
+        // Durante la espera ni siquiera se intenta la réplica
+        assertThat(dataSource.getConnection()).isSameAs(dePrimario);
+        verify(replica, times(1)).getConnection();
+
+        Thread.sleep(ESPERA.toMillis() + 100);
+        assertThat(dataSource.getConnection()).isSameAs(deReplica);
+        verify(replica, times(2)).getConnection();
+    }
+
+    @Test
+    void conUsuarioYClaveSigueLaMismaRegla() throws Exception {
+        when(replica.getConnection("lector", "clave")).thenThrow(new SQLException("réplica caída"));
+
+        assertThat(dataSource.getConnection("lector", "clave")).isSameAs(dePrimario);
+        assertThat(dataSource.getConnection("lector", "clave")).isSameAs(dePrimario);
+        verify(replica, times(1)).getConnection("lector", "clave");
+    }
+
+    @Test
+    void siTambienFallaElPrimarioPropagaSuError() throws SQLException {
+        SQLException caidaPrimario = new SQLException("primario caído");
+        when(replica.getConnection()).thenThrow(new SQLException("réplica caída"));
+        when(primario.getConnection()).thenThrow(caidaPrimario);
+
+        assertThatThrownBy(dataSource::getConnection).isSameAs(caidaPrimario);
+    }
+}
@@ -0,0 +1,120 @@
+package com.eafit.nutrition.config;
+
+import com.eafit.nutrition.model.Medicion;
+import com.eafit.nutrition.model.Nota;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.NotaRepository;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import com.eafit.nutrition.service.MedicionServiceConstructor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Con la caché caliente, cargar un paciente (y con él su nutricionista y las notas EAGER de este)
+ * no debe ir a la BD.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SecondLevelCacheTests {
+
+    @Autowired
+    private NutricionistaRepository nutricionistaRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private MedicionServiceConstructor medicionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Nutricionista nutricionista;
+    private Paciente paciente;
+
+    @BeforeAll
+    void sembrar() {
+        Nutricionista nuevo = new Nutricionista("Nutri", "Cache", "LIC-CACHE-1", "nutri@cache.test");
+        for (int i = 0; i < 2; i++) {
+            Paciente nuevoPaciente = new Paciente("Paciente" + i, "Cache", LocalDate.of(1990, 1, 1),
+                    "p" + i + "@cache.test");
+            nuevo.addPaciente(nuevoPaciente);
+            for (int j = 0; j < 2; j++) {
+                Nota nota = new Nota("Nota " + i + "-" + j, "Seguimiento", LocalDateTime.of(2025, 1, 1, 9, 0), "SEGUIMIENTO");
+                nuevoPaciente.addNota(nota);
+                nuevo.addNota(nota);
+            }
+        }
+        nutricionista = nutricionistaRepository.save(nuevo);
+        paciente = nutricionista.getPacientes().get(0);
+    }
+
+    @Test
+    void cargaEnCalienteNoConsultaLaBd() {
+        int notas = contarNotas();
+
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(true)) {
+            assertThat(contarNotas()).isEqualTo(notas);
+            assertThat(ambito.contador().sql()).as("SQL con la caché caliente").isEmpty();
+        }
+    }
+
+    @Test
+    void createMedicionEnCalienteSoloEscribe() {
+        crearMedicion();
+
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(true)) {
+            crearMedicion();
+            // Quedan la secuencia, el INSERT y el bloqueo y la actualización de las estadísticas del paciente
+            assertThat(ambito.contador().sql())
+                    .map(sql -> sql.toLowerCase(Locale.ROOT).strip())
+                    .filteredOn(sql -> sql.startsWith("select"))
+                    .filteredOn(sql -> !sql.contains("for update") && !sql.contains("next value for"))
+                    .as("lecturas de paciente, nutricionista o notas con la caché caliente")
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    void nuevaNotaInvalidaLaColeccionEnCache() {
+        contarNotas();
+        int antes = contarNotas();
+
+        Nota nota = new Nota("Nota nueva", "Seguimiento", LocalDateTime.of(2025, 2, 1, 9, 0), "SEGUIMIENTO");
+        nota.setPaciente(paciente);
+        nota.setNutricionista(nutricionista);
+        notaRepository.save(nota);
+
+        assertThat(contarNotas()).isEqualTo(antes + 1);
+    }
+
+    // Notas del nutricionista alcanzadas desde el paciente, como en createMedicion
+    private int contarNotas() {
+        Integer notas = transactionTemplate.execute(status -> pacienteRepository.findById(paciente.getId())
+                .orElseThrow()
+                .getNutricionista()
+                .getNotas()
+                .size());
+        return notas != null ? notas : 0;
+    }
+
+    private void crearMedicion() {
+        medicionService.createMedicion(paciente.getId(), nutricionista.getId(),
+                new Medicion(LocalDate.of(2025, 3, 1), 70.0, 170.0, null, null));
+    }
+}
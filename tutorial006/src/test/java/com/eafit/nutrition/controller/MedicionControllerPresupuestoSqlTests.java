@@ -0,0 +1,268 @@
+package com.eafit.nutrition.controller;
+
+import com.eafit.nutrition.config.ConsultasPorPeticion;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.model.Nota;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.MedicionRepository;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.service.MedicionServiceConstructor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Presupuesto de SQL por endpoint de MedicionController.
+ * Cada petición se mide con las cachés de Hibernate vacías y se registra el texto de cada sentencia.
+ * Falla si un endpoint pasa su presupuesto o si el número de sentencias cambia entre una variante
+ * pequeña y una grande de la misma petición (el síntoma de un N+1).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MedicionControllerPresupuestoSqlTests {
+
+    private static final int PACIENTES_CARTERA_PEQUENA = 3;
+    private static final int PACIENTES_CARTERA_GRANDE = 30;
+    private static final int MEDICIONES_POR_PACIENTE = 2;
+
+    private record Medida(int status, int sentencias, int entidades, List<String> sql, String cuerpo) {
+
+        // Las secuencias pooled reservan 50 ids por consulta: se piden según la posición
+        // en el bloque de ids, no según el tamaño de la petición
+        long sentenciasSinSecuencias() {
+            return sql.stream().filter(s -> !s.toLowerCase().contains("next value for")).count();
+        }
+
+        String detalle() {
+            return sentencias + " sentencias:\n" + sql.stream()
+                    .map(s -> "  " + s.replaceAll("\\s+", " "))
+                    .collect(Collectors.joining("\n"));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NutricionistaRepository nutricionistaRepository;
+
+    @Autowired
+    private MedicionRepository medicionRepository;
+
+    @Autowired
+    private MedicionServiceConstructor medicionService;
+
+    private Nutricionista carteraPequena;
+    private Nutricionista carteraGrande;
+    private Long medicionId;
+
+    @BeforeAll
+    void sembrar() {
+        carteraPequena = sembrarCartera("PEQ", PACIENTES_CARTERA_PEQUENA);
+        carteraGrande = sembrarCartera("GRA", PACIENTES_CARTERA_GRANDE);
+
+        List<MedicionLoteItem> items = new ArrayList<>();
+        for (Nutricionista nutricionista : List.of(carteraPequena, carteraGrande)) {
+            for (Paciente paciente : nutricionista.getPacientes()) {
+                for (int i = 0; i < MEDICIONES_POR_PACIENTE; i++) {
+                    items.add(item(paciente, nutricionista, i));
+                }
+            }
+        }
+        // Por el servicio, para que también existan las estadísticas de cada paciente
+        medicionService.createMediciones(items);
+        medicionId = medicionRepository.findAllResumen(Pageable.ofSize(1))
+                .getContent().get(0).id();
+    }
+
+    private Nutricionista sembrarCartera(String prefijo, int pacientes) {
+        Nutricionista nutricionista = new Nutricionista("Nutri", prefijo, "LIC-SQL-" + prefijo,
+                prefijo.toLowerCase() + "@presupuesto.test");
+        for (int i = 0; i < pacientes; i++) {
+            Paciente paciente = new Paciente("Paciente" + i, prefijo, LocalDate.of(1990, 1, 1),
+                    "p" + i + "." + prefijo.toLowerCase() + "@presupuesto.test");
+            nutricionista.addPaciente(paciente);
+            // Una nota por paciente: Nutricionista.notas es EAGER y cada Nota carga su Paciente
+            Nota nota = new Nota("Control " + i, "Seguimiento", LocalDateTime.of(2025, 1, 1, 9, 0), "SEGUIMIENTO");
+            paciente.addNota(nota);
+            nutricionista.addNota(nota);
+        }
+        return nutricionistaRepository.save(nutricionista);
+    }
+
+    private static MedicionLoteItem item(Paciente paciente, Nutricionista nutricionista, int i) {
+        return new MedicionLoteItem(paciente.getId(), nutricionista.getId(), LocalDate.of(2025, 1, 1).plusDays(i),
+                70.0 + i, 170.0, null, null, null);
+    }
+
+    // ------------------ LECTURAS ------------------
+
+    @Test
+    void paginaConstructor() throws Exception {
+        verificarLectura("/api/mediciones/constructor?size=5", "/api/mediciones/constructor?size=60", 2);
+    }
+
+    @Test
+    void paginaAutowired() throws Exception {
+        verificarLectura("/api/mediciones/autowired?size=5", "/api/mediciones/autowired?size=60", 2);
+    }
+
+    @Test
+    void paginaSetter() throws Exception {
+        verificarLectura("/api/mediciones/setter?size=5", "/api/mediciones/setter?size=60", 2);
+    }
+
+    @Test
+    void keyset() throws Exception {
+        verificarLectura("/api/mediciones/constructor/keyset?size=5", "/api/mediciones/constructor/keyset?size=60", 1);
+    }
+
+    @Test
+    void ultimasPorNutricionista() throws Exception {
+        verificarLectura("/api/mediciones/nutricionista/" + carteraPequena.getId() + "/ultimas",
+                "/api/mediciones/nutricionista/" + carteraGrande.getId() + "/ultimas", 1);
+    }
+
+    @Test
+    void ultimasConImcPorNutricionista() throws Exception {
+        verificarLectura("/api/mediciones/nutricionista/" + carteraPequena.getId() + "/imc?min=0",
+                "/api/mediciones/nutricionista/" + carteraGrande.getId() + "/imc?min=0", 1);
+    }
+
+    @Test
+    void paginaPorImc() throws Exception {
+        verificarLectura("/api/mediciones/imc?size=5", "/api/mediciones/imc?size=60", 2);
+    }
+
+    @Test
+    void stream() throws Exception {
+        // Recorre toda la tabla con un solo cursor
+        Medida medida = medir(get("/api/mediciones/constructor/stream"));
+        assertThat(medida.status()).isEqualTo(200);
+        assertThat(medida.cuerpo().lines().count()).isGreaterThanOrEqualTo(
+                (long) (PACIENTES_CARTERA_PEQUENA + PACIENTES_CARTERA_GRANDE) * MEDICIONES_POR_PACIENTE);
+        assertThat(medida.sentencias()).as(medida.detalle()).isLessThanOrEqualTo(1);
+        assertThat(medida.entidades()).as("entidades cargadas").isZero();
+    }
+
+    @Test
+    void compare() throws Exception {
+        // Tres servicios en paralelo; la carga compartida puede reducirlos a una sola consulta
+        Medida medida = medir(get("/api/mediciones/compare/" + medicionId));
+        assertThat(medida.status()).isEqualTo(200);
+        assertThat(medida.sentencias()).as(medida.detalle()).isBetween(1, 3);
+        assertThat(medida.entidades()).as("entidades cargadas").isZero();
+    }
+
+    // ------------------ ESCRITURAS ------------------
+
+    @Test
+    void crearMedicion() throws Exception {
+        // La cartera grande tiene diez veces más pacientes y notas EAGER que la pequeña
+        verificarEscritura(crear(carteraPequena), crear(carteraGrande), 7);
+    }
+
+    @Test
+    void cargaMasiva() throws Exception {
+        Paciente uno = carteraGrande.getPacientes().get(0);
+        Paciente otro = carteraGrande.getPacientes().get(1);
+        verificarEscritura(lote(uno, otro, 2), lote(uno, otro, 20), 8);
+    }
+
+    private RequestBuilder crear(Nutricionista nutricionista) {
+        Paciente paciente = nutricionista.getPacientes().get(0);
+        return post("/api/mediciones/constructor/paciente/" + paciente.getId() + "/nutricionista/" + nutricionista.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fecha\":\"2025-02-01\",\"peso\":71.5,\"altura\":170.0}");
+    }
+
+    private RequestBuilder lote(Paciente uno, Paciente otro, int cantidad) throws Exception {
+        List<MedicionLoteItem> items = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            items.add(item(i % 2 == 0 ? uno : otro, carteraGrande, 40 + i));
+        }
+        return post("/api/mediciones/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(items));
+    }
+
+    // ------------------ MEDICIÓN ------------------
+
+    private void verificarLectura(String pequena, String grande, int maxSentencias) throws Exception {
+        Medida medidaPequena = medir(get(pequena));
+        Medida medidaGrande = medir(get(grande));
+        assertThat(medidaPequena.status()).isEqualTo(200);
+        assertThat(medidaGrande.status()).isEqualTo(200);
+        // Si las dos variantes devolvieran lo mismo la comparación no probaría nada
+        assertThat(elementos(medidaGrande)).as("elementos de " + grande).isGreaterThan(elementos(medidaPequena));
+
+        assertThat(medidaPequena.sentencias()).as(pequena + ": " + medidaPequena.detalle())
+                .isLessThanOrEqualTo(maxSentencias);
+        assertThat(medidaGrande.sentencias()).as(grande + ": " + medidaGrande.detalle())
+                .isEqualTo(medidaPequena.sentencias());
+        // Las lecturas proyectan a DTO: cargar entidades arrastraría sus asociaciones EAGER
+        assertThat(medidaGrande.entidades()).as("entidades cargadas por " + grande).isZero();
+    }
+
+    private void verificarEscritura(RequestBuilder pequena, RequestBuilder grande, int maxSentencias) throws Exception {
+        Medida medidaPequena = medir(pequena);
+        Medida medidaGrande = medir(grande);
+        assertThat(medidaPequena.status()).isEqualTo(201);
+        assertThat(medidaGrande.status()).isEqualTo(201);
+
+        assertThat(medidaPequena.sentencias()).as(medidaPequena.detalle()).isLessThanOrEqualTo(maxSentencias);
+        assertThat(medidaGrande.sentencias()).as(medidaGrande.detalle()).isLessThanOrEqualTo(maxSentencias);
+        assertThat(medidaGrande.sentenciasSinSecuencias()).as(medidaGrande.detalle())
+                .isEqualTo(medidaPequena.sentenciasSinSecuencias());
+    }
+
+    private Medida medir(RequestBuilder peticion) throws Exception {
+        // En frío: con la caché de segundo nivel caliente un N+1 no se vería
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(true)) {
+            MvcResult resultado = mockMvc.perform(peticion).andReturn();
+            if (resultado.getRequest().isAsyncStarted()) {
+                resultado = mockMvc.perform(asyncDispatch(resultado)).andReturn();
+            }
+            ConsultasPorPeticion.Contador contador = ambito.contador();
+            return new Medida(resultado.getResponse().getStatus(), contador.sentencias(), contador.entidades(),
+                    contador.sql(), resultado.getResponse().getContentAsString());
+        }
+    }
+
+    private int elementos(Medida medida) throws Exception {
+        JsonNode json = objectMapper.readTree(medida.cuerpo());
+        return json.isArray() ? json.size() : json.path("content").size();
+    }
+}
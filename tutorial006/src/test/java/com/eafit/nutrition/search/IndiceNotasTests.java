@@ -0,0 +1,171 @@
+package com.eafit.nutrition.search;
+
+import com.eafit.nutrition.dto.NotaResumen;
+import com.eafit.nutrition.service.SolicitudInvalidaException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndiceNotasTests {
+
+    private static final LocalDateTime ENERO = LocalDateTime.of(2025, 1, 10, 9, 0);
+    private static final IndiceNotas.Filtro SIN_FILTRO = new IndiceNotas.Filtro(null, null, null, null, null);
+
+    private final IndiceNotas indice = new IndiceNotas();
+
+    // ------------------ RANKING ------------------
+
+    @Test
+    void masAparicionesPuntuaMas() {
+        indice.indexar(nota(1L, "Plan", "proteina cena desayuno almuerzo"));
+        indice.indexar(nota(2L, "Plan", "proteina proteina proteina cena"));
+        indice.indexar(nota(3L, "Plan", "verduras cena"));
+
+        assertThat(ids("proteina")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void elTituloPesaMasQueElContenido() {
+        indice.indexar(nota(1L, "Control", "hidratacion agua"));
+        indice.indexar(nota(2L, "Hidratación", "agua diaria"));
+
+        assertThat(ids("hidratacion")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void aIgualFrecuenciaElDocumentoCortoPuntuaMas() {
+        indice.indexar(nota(1L, "Nota", "azucar manana tarde noche semana"));
+        indice.indexar(nota(2L, "Nota", "azucar"));
+
+        assertThat(ids("azucar")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void unTerminoRaroPesaMasQueUnoComun() {
+        indice.indexar(nota(1L, "Nota", "sodio"));
+        indice.indexar(nota(2L, "Nota", "sodio"));
+        indice.indexar(nota(3L, "Nota", "gluten"));
+        indice.indexar(nota(4L, "Nota", "sodio"));
+
+        List<Long> ids = ids("sodio gluten");
+        assertThat(ids).hasSize(4);
+        assertThat(ids.get(0)).isEqualTo(3L);
+        // Empate: primero el id mayor
+        assertThat(ids.subList(1, 4)).containsExactly(4L, 2L, 1L);
+    }
+
+    @Test
+    void devuelveSoloLasMejoresHastaElLimite() {
+        indice.indexar(nota(1L, "Nota", "fibra"));
+        indice.indexar(nota(2L, "Nota", "fibra fibra"));
+        indice.indexar(nota(3L, "Nota", "fibra fibra fibra"));
+
+        assertThat(indice.buscar("fibra", SIN_FILTRO, 2)).extracting(IndiceNotas.Coincidencia::notaId)
+                .containsExactly(3L, 2L);
+    }
+
+    @Test
+    void ignoraTildesMayusculasYPalabrasVacias() {
+        indice.indexar(nota(1L, "Nutrición", "Revisión de la DIETA"));
+
+        assertThat(ids("nutricion")).containsExactly(1L);
+        assertThat(ids("REVISION dieta")).containsExactly(1L);
+        assertThatThrownBy(() -> indice.buscar("de la", SIN_FILTRO, 10))
+                .isInstanceOf(SolicitudInvalidaException.class);
+    }
+
+    // ------------------ FILTROS ------------------
+
+    @Test
+    void filtraPorPaciente() {
+        indexarParaFiltros();
+        assertThat(ids("control", new IndiceNotas.Filtro(10L, null, null, null, null))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void filtraPorNutricionista() {
+        indexarParaFiltros();
+        assertThat(ids("control", new IndiceNotas.Filtro(null, 200L, null, null, null))).containsExactly(3L);
+    }
+
+    @Test
+    void filtraPorTipoSinDistinguirMayusculas() {
+        indexarParaFiltros();
+        assertThat(ids("control", new IndiceNotas.Filtro(null, null, "alerta", null, null))).containsExactly(2L);
+    }
+
+    @Test
+    void filtraPorFechaDesdeIncluidaYHastaExcluida() {
+        indexarParaFiltros();
+        assertThat(ids("control", new IndiceNotas.Filtro(null, null, null, ENERO.plusDays(1), null)))
+                .containsExactly(2L, 3L);
+        assertThat(ids("control", new IndiceNotas.Filtro(null, null, null, null, ENERO.plusDays(2))))
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void combinaFiltros() {
+        indexarParaFiltros();
+        assertThat(ids("control", new IndiceNotas.Filtro(10L, 100L, "seguimiento", ENERO, ENERO.plusDays(1))))
+                .containsExactly(1L);
+        assertThat(ids("control", new IndiceNotas.Filtro(10L, 200L, null, null, null))).isEmpty();
+    }
+
+    // ------------------ ACTUALIZACIONES ------------------
+
+    @Test
+    void reindexarUnaNotaReemplazaSusTerminos() {
+        indice.indexar(nota(1L, "Nota", "lactosa"));
+        indice.indexar(nota(1L, "Nota", "gluten"));
+
+        assertThat(ids("lactosa")).isEmpty();
+        assertThat(ids("gluten")).containsExactly(1L);
+        assertThat(indice.size()).isEqualTo(1);
+    }
+
+    @Test
+    void eliminarQuitaLaNota() {
+        indice.indexar(nota(1L, "Nota", "lactosa"));
+        indice.indexar(nota(2L, "Nota", "lactosa"));
+        indice.eliminar(1L);
+
+        assertThat(ids("lactosa")).containsExactly(2L);
+        assertThat(indice.size()).isEqualTo(1);
+    }
+
+    @Test
+    void indexarSiFaltaNoPisaUnaVersionMasNueva() {
+        indice.indexar(nota(1L, "Nota", "version nueva"));
+        indice.indexarSiFalta(nota(1L, "Nota", "version vieja"));
+        indice.indexarSiFalta(nota(2L, "Nota", "otra"));
+
+        assertThat(ids("vieja")).isEmpty();
+        assertThat(ids("nueva")).containsExactly(1L);
+        assertThat(ids("otra")).containsExactly(2L);
+    }
+
+    // Tres notas con el mismo texto: solo los filtros las distinguen
+    private void indexarParaFiltros() {
+        indice.indexar(new NotaResumen(1L, "Control", "peso", ENERO, "SEGUIMIENTO", 10L, 100L));
+        indice.indexar(new NotaResumen(2L, "Control", "peso", ENERO.plusDays(1), "ALERTA", 10L, 100L));
+        indice.indexar(new NotaResumen(3L, "Control", "peso", ENERO.plusDays(2), "SEGUIMIENTO", 20L, 200L));
+    }
+
+    private List<Long> ids(String consulta) {
+        return ids(consulta, SIN_FILTRO);
+    }
+
+    private List<Long> ids(String consulta, IndiceNotas.Filtro filtro) {
+        List<Long> ids = indice.buscar(consulta, filtro, 10).stream().map(IndiceNotas.Coincidencia::notaId).toList();
+        // Los filtros solo deciden qué notas entran, no su orden
+        return filtro == SIN_FILTRO ? ids : ids.stream().sorted().toList();
+    }
+
+    private static NotaResumen nota(Long id, String titulo, String contenido) {
+        return new NotaResumen(id, titulo, contenido, ENERO, "SEGUIMIENTO", 10L, 100L);
+    }
+}
@@ -0,0 +1,121 @@
+package com.eafit.nutrition.search;
+
+import com.eafit.nutrition.model.Nota;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.NotaRepository;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.eafit.nutrition.repository.PacienteRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El índice solo refleja escrituras confirmadas: una nota aparece o cambia al hacer commit,
+ * y una transacción revertida no deja rastro.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotaIndiceListenerTests {
+
+    private static final IndiceNotas.Filtro SIN_FILTRO = new IndiceNotas.Filtro(null, null, null, null, null);
+
+    @Autowired
+    private IndiceNotas indice;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private NutricionistaRepository nutricionistaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long pacienteId;
+    private Long nutricionistaId;
+
+    @BeforeAll
+    void sembrar() {
+        Nutricionista nutricionista = new Nutricionista("Nutri", "Indice", "LIC-INDICE-1", "nutri@indice.test");
+        Paciente paciente = new Paciente("Paciente", "Indice", LocalDate.of(1990, 1, 1), "p@indice.test");
+        nutricionista.addPaciente(paciente);
+        nutricionistaRepository.save(nutricionista);
+        pacienteId = paciente.getId();
+        nutricionistaId = nutricionista.getId();
+    }
+
+    @Test
+    void unaNotaNuevaApareceAlConfirmar() {
+        Long id = transactionTemplate.execute(status -> {
+            Long nueva = guardar("Zanahoria", "Aumentar el consumo de zanahoria");
+            // Antes del commit el índice no la conoce
+            assertThat(ids("zanahoria")).isEmpty();
+            return nueva;
+        });
+
+        assertThat(ids("zanahoria")).containsExactly(id);
+    }
+
+    @Test
+    void unaNotaRevertidaNoApareceNunca() {
+        transactionTemplate.executeWithoutResult(status -> {
+            guardar("Remolacha", "Probar remolacha en el almuerzo");
+            status.setRollbackOnly();
+        });
+
+        assertThat(ids("remolacha")).isEmpty();
+    }
+
+    @Test
+    void editarReemplazaLosTerminosAlConfirmar() {
+        Long id = transactionTemplate.execute(status -> guardar("Espinaca", "Espinaca dos veces por semana"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Nota nota = notaRepository.findById(id).orElseThrow();
+            nota.setTitulo("Acelga");
+            nota.setContenido("Acelga dos veces por semana");
+        });
+
+        assertThat(ids("espinaca")).isEmpty();
+        assertThat(ids("acelga")).containsExactly(id);
+    }
+
+    @Test
+    void unaEdicionRevertidaConservaLaVersionAnterior() {
+        Long id = transactionTemplate.execute(status -> guardar("Lentejas", "Lentejas en la cena"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Nota nota = notaRepository.findById(id).orElseThrow();
+            nota.setContenido("Garbanzos en la cena");
+            notaRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(ids("lentejas")).containsExactly(id);
+        assertThat(ids("garbanzos")).isEmpty();
+    }
+
+    private Long guardar(String titulo, String contenido) {
+        Nota nota = new Nota(titulo, contenido, LocalDateTime.of(2025, 1, 1, 9, 0), "SEGUIMIENTO");
+        nota.setPaciente(pacienteRepository.getReferenceById(pacienteId));
+        nota.setNutricionista(nutricionistaRepository.getReferenceById(nutricionistaId));
+        return notaRepository.saveAndFlush(nota).getId();
+    }
+
+    private List<Long> ids(String consulta) {
+        return indice.buscar(consulta, SIN_FILTRO, 10).stream().map(IndiceNotas.Coincidencia::notaId).toList();
+    }
+}
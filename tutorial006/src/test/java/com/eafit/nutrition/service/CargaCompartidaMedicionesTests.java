@@ -0,0 +1,123 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.config.ConsultasPorPeticion;
+import com.eafit.nutrition.dto.MedicionLoteItem;
+import com.eafit.nutrition.dto.MedicionResumen;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.MedicionRepository;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Varias consultas simultáneas del mismo id deben resolverse con un único SELECT.
+ * La consulta líder se retiene hasta que todas las demás esperan su resultado, así la
+ * coincidencia no depende del azar.
+ */
+@SpringBootTest
+class CargaCompartidaMedicionesTests {
+
+    private static final int CONSULTAS = 8;
+
+    @Autowired
+    private NutricionistaRepository nutricionistaRepository;
+
+    @Autowired
+    private MedicionRepository medicionRepository;
+
+    @Autowired
+    private MedicionServiceConstructor medicionService;
+
+    @Test
+    void consultasSimultaneasHacenUnSoloSelect() throws Exception {
+        Long id = sembrar();
+        CountDownLatch liberar = new CountDownLatch(1);
+        CargaCompartidaMediciones carga = new CargaCompartidaMediciones(retenida(liberar));
+
+        List<Optional<MedicionResumen>> resultados = new ArrayList<>();
+        List<Thread> hilos = new ArrayList<>();
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(true)) {
+            for (int i = 0; i < CONSULTAS; i++) {
+                Thread hilo = new Thread(ConsultasPorPeticion.propagar(() -> {
+                    Optional<MedicionResumen> resultado = carga.findResumenById(id);
+                    synchronized (resultados) {
+                        resultados.add(resultado);
+                    }
+                }));
+                hilos.add(hilo);
+                hilo.start();
+            }
+            // La líder espera en el cerrojo y las demás en su resultado
+            esperarHasta(() -> hilos.stream().allMatch(h -> h.getState() == Thread.State.WAITING));
+            liberar.countDown();
+            for (Thread hilo : hilos) {
+                hilo.join(TimeUnit.SECONDS.toMillis(10));
+            }
+
+            assertThat(resultados).hasSize(CONSULTAS)
+                    .allSatisfy(r -> assertThat(r).hasValueSatisfying(m -> assertThat(m.id()).isEqualTo(id)));
+            assertThat(ambito.contador().sentencias()).as(String.join("\n", ambito.contador().sql()))
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    void alTerminarVuelveALeerDeLaBd() {
+        Long id = sembrar();
+        try (ConsultasPorPeticion.Ambito ambito = ConsultasPorPeticion.abrir(false)) {
+            medicionService.findResumenById(id);
+            medicionService.findResumenById(id);
+            assertThat(ambito.contador().sentencias()).isEqualTo(2);
+        }
+    }
+
+    private Long sembrar() {
+        long sufijo = System.nanoTime();
+        Nutricionista nutricionista = new Nutricionista("Nutri", "Carga", "LIC-CARGA-" + sufijo,
+                "nutri" + sufijo + "@carga.test");
+        Paciente paciente = new Paciente("Paciente", "Carga", LocalDate.of(1990, 1, 1),
+                "p" + sufijo + "@carga.test");
+        nutricionista.addPaciente(paciente);
+        nutricionistaRepository.save(nutricionista);
+        medicionService.createMediciones(List.of(new MedicionLoteItem(paciente.getId(), nutricionista.getId(),
+                LocalDate.of(2025, 1, 1), 70.0, 170.0, null, null, null)));
+        return medicionRepository.findFirstByPacienteIdOrderByFechaDesc(paciente.getId()).orElseThrow().getId();
+    }
+
+    // Repositorio que retiene findResumenById hasta que se abre el cerrojo
+    private MedicionRepository retenida(CountDownLatch liberar) {
+        return (MedicionRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{MedicionRepository.class}, (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("findResumenById")) {
+                        liberar.await(10, TimeUnit.SECONDS);
+                    }
+                    try {
+                        return metodo.invoke(medicionRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
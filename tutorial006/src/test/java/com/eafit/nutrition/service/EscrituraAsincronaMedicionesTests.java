@@ -0,0 +1,220 @@
+package com.eafit.nutrition.service;
+
+import com.eafit.nutrition.dto.EstadoEscritura;
+import com.eafit.nutrition.model.Nutricionista;
+import com.eafit.nutrition.model.Paciente;
+import com.eafit.nutrition.repository.NutricionistaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modo de escritura asíncrona: 202 con Location, estado consultable hasta el commit,
+ * 429 con la cola llena y vaciado de la cola al cerrar.
+ * Para llenar la cola el escritor se retiene dentro de guardarLote. Usa su propia BD en memoria
+ * porque el contexto se descarta al final (create-drop borraría el esquema de los demás).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:escritura-asincrona",
+        "nutrition.async-writes.enabled=true",
+        "nutrition.async-writes.queue-capacity=" + EscrituraAsincronaMedicionesTests.CAPACIDAD,
+        "nutrition.async-writes.max-wait=5ms"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DirtiesContext
+class EscrituraAsincronaMedicionesTests {
+
+    static final int CAPACIDAD = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NutricionistaRepository nutricionistaRepository;
+
+    @Autowired
+    private EscrituraAsincronaMediciones escritura;
+
+    @MockitoSpyBean
+    private MedicionServiceConstructor medicionService;
+
+    private Long pacienteId;
+    private Long nutricionistaId;
+
+    @BeforeAll
+    void sembrar() {
+        Nutricionista nutricionista = new Nutricionista("Nutri", "Async", "LIC-ASYNC-1", "nutri@async.test");
+        Paciente paciente = new Paciente("Paciente", "Async", LocalDate.of(1990, 1, 1), "p@async.test");
+        nutricionista.addPaciente(paciente);
+        nutricionistaRepository.save(nutricionista);
+        pacienteId = paciente.getId();
+        nutricionistaId = nutricionista.getId();
+    }
+
+    @Test
+    void respondeAceptadoYElEstadoPasaAGuardada() throws Exception {
+        String location = aceptar(pacienteId);
+
+        EstadoEscritura estado = esperarFinal(location);
+        assertThat(estado.estado()).isEqualTo(EstadoEscritura.GUARDADA);
+        assertThat(estado.medicionId()).isNotNull();
+        assertThat(estado.error()).isNull();
+    }
+
+    @Test
+    void unPacienteInexistenteQuedaFallida() throws Exception {
+        // Las referencias se comprueban en el hilo escritor: la petición se acepta igual
+        String location = aceptar(-1L);
+
+        EstadoEscritura estado = esperarFinal(location);
+        assertThat(estado.estado()).isEqualTo(EstadoEscritura.FALLIDA);
+        assertThat(estado.error()).isEqualTo("Paciente no encontrado con id: -1");
+    }
+
+    @Test
+    void conLaColaLlenaResponde429() throws Exception {
+        CountDownLatch enCommit = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        retenerEscritor(enCommit, liberar);
+        List<String> aceptadas = new ArrayList<>();
+        try {
+            aceptadas.add(aceptar(pacienteId));
+            assertThat(enCommit.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < CAPACIDAD; i++) {
+                aceptadas.add(aceptar(pacienteId));
+            }
+
+            mockMvc.perform(crear(pacienteId))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.error").isNotEmpty());
+        } finally {
+            liberar.countDown();
+        }
+        for (String location : aceptadas) {
+            assertThat(esperarFinal(location).estado()).isEqualTo(EstadoEscritura.GUARDADA);
+        }
+    }
+
+    // Último: después de cerrar() el escritor ya no acepta mediciones
+    @Test
+    @Order(Integer.MAX_VALUE)
+    void cerrarVaciaLaColaAntesDeTerminar() throws Exception {
+        CountDownLatch enCommit = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        retenerEscritor(enCommit, liberar);
+        List<String> aceptadas = new ArrayList<>();
+        aceptadas.add(aceptar(pacienteId));
+        assertThat(enCommit.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < CAPACIDAD; i++) {
+            aceptadas.add(aceptar(pacienteId));
+        }
+
+        Thread cierre = new Thread(() -> {
+            try {
+                escritura.cerrar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        cierre.start();
+        // cerrar() ya espera al escritor y la cola sigue llena
+        esperarHasta(() -> cierre.getState() == Thread.State.TIMED_WAITING);
+        assertThat(escritura.estadisticas()).containsEntry("queueDepth", CAPACIDAD);
+        liberar.countDown();
+        cierre.join(TimeUnit.SECONDS.toMillis(30));
+
+        // Al volver cerrar() no queda nada pendiente
+        assertThat(cierre.isAlive()).isFalse();
+        assertThat(escritura.estadisticas()).containsEntry("queueDepth", 0);
+        for (String location : aceptadas) {
+            assertThat(estado(location).estado()).isEqualTo(EstadoEscritura.GUARDADA);
+        }
+        mockMvc.perform(crear(pacienteId)).andExpect(status().isTooManyRequests());
+    }
+
+    // El primer grupo que llegue a guardarLote espera hasta que se abra el cerrojo
+    private void retenerEscritor(CountDownLatch enCommit, CountDownLatch liberar) {
+        doAnswer(invocacion -> {
+            if (enCommit.getCount() > 0) {
+                enCommit.countDown();
+                liberar.await(10, TimeUnit.SECONDS);
+            }
+            return invocacion.callRealMethod();
+        }).when(medicionService).guardarLote(anyList());
+    }
+
+    private String aceptar(Long paciente) throws Exception {
+        MvcResult resultado = mockMvc.perform(crear(paciente))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.estado").value(EstadoEscritura.PENDIENTE))
+                .andReturn();
+        String location = resultado.getResponse().getHeader("Location");
+        assertThat(location).startsWith("/api/mediciones/async/");
+        return location;
+    }
+
+    private RequestBuilder crear(Long paciente) {
+        return post("/api/mediciones/constructor/paciente/" + paciente + "/nutricionista/" + nutricionistaId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fecha\":\"2025-03-01\",\"peso\":72.0,\"altura\":170.0}");
+    }
+
+    private EstadoEscritura esperarFinal(String location) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        EstadoEscritura estado = estado(location);
+        while (EstadoEscritura.PENDIENTE.equals(estado.estado()) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            estado = estado(location);
+        }
+        return estado;
+    }
+
+    private EstadoEscritura estado(String location) throws Exception {
+        String cuerpo = mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(cuerpo, EstadoEscritura.class);
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.docencia.tutorial05.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of rendered HTML pages, keyed by request URI and query string.
+ */
+@Component
+public class RenderedPageCache {
+
+    private final int maxEntries;
+    private final int maxEntryBytes;
+    private final Map<String, Entry> entries;
+
+    // Bumped on every invalidation so a page rendered before a catalog change is never stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public RenderedPageCache(@Value("${app.page-cache.max-entries:512}") int maxEntries,
+                             @Value("${app.page-cache.max-entry-bytes:262144}") int maxEntryBytes) {
+        this.maxEntries = maxEntries;
+        this.maxEntryBytes = maxEntryBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > RenderedPageCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a page unless it is too large or the cache was invalidated after {@code renderedAt}.
+     */
+    public void put(String key, Entry entry, long renderedAt) {
+        if (maxEntries <= 0 || entry.body().length > maxEntryBytes) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation.get() == renderedAt) {
+                entries.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Drops the page of the given product and every listing or search page.
+     */
+    public void invalidateProduct(long productId) {
+        synchronized (entries) {
+            entries.remove("/products/" + productId);
+            invalidateListings();
+        }
+    }
+
+    /**
+     * Drops every listing or search page, for changes that only add products.
+     */
+    public void invalidateListings() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(key -> key.equals("/products")
+                    || key.startsWith("/products?")
+                    || key.startsWith("/products/search"));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public record Entry(byte[] body, String contentType, String etag) {
+    }
+}
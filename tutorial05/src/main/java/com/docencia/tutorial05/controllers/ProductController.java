@@ -1,93 +1,177 @@
-package com.docencia.tutorial05.controllers;
-
-import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
-import org.springframework.validation.BindingResult;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.ModelAttribute;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-
-import jakarta.validation.Valid;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-@Controller
-public class ProductController {
-
-    private static final List<Map<String, String>> products = new ArrayList<>(List.of(
-            Map.of("id", "1", "name", "TV", "description", "Best TV", "price", "$999.99"),
-            Map.of("id", "2", "name", "iPhone", "description", "Best iPhone", "price", "$899.99"),
-            Map.of("id", "3", "name", "Chromecast", "description", "Best Chromecast", "price", "$35.00"),
-            Map.of("id", "4", "name", "Glasses", "description", "Best Glasses", "price", "$120.50")
-    ));
-
-    @GetMapping("/products")
-    public String index(Model model) {
-        model.addAttribute("title", "Products - Online Store");
-        model.addAttribute("subtitle", "List of products");
-        model.addAttribute("products", products);
-        return "product/index";
-    }
-
-    @GetMapping("/products/{id}")
-    public String show(@PathVariable String id, Model model) {
-        int productId = Integer.parseInt(id) - 1;
-
-        try {
-        productId = Integer.parseInt(id) - 1;
-        }catch (NumberFormatException e) {
-        return "redirect:/";
-        }
-
-    if (productId < 0 || productId >= products.size()) {
-        return "redirect:/";
-    }
-
-        Map<String, String> product = products.get(productId);
-
-    // Convertir el precio a double (quitando el $)
-    double priceValue = Double.parseDouble(product.get("price").replace("$", ""));
-
-    // Pasamos priceValue al modelo
-    model.addAttribute("title", product.get("name") + " - Online Store");
-    model.addAttribute("subtitle", product.get("name") + " - Product Information");
-    model.addAttribute("product", product);
-    model.addAttribute("priceValue", priceValue);
-
-    return "product/show";
-
-    }
-
-    @GetMapping("/products/create")
-        public String create(Model model) {
-            model.addAttribute("title", "Create Product");
-            model.addAttribute("productForm", new ProductForm());
-            return "product/create";
-    }
-
-    @PostMapping("/products/save")
-    public String save(@Valid @ModelAttribute("productForm") ProductForm productForm,
-                   BindingResult result, Model model) {
-    if (result.hasErrors()) {
-        model.addAttribute("title", "Create Product");
-        return "product/create";
-    }
-
-    Map<String, String> newProduct = new HashMap<>();
-    newProduct.put("id", String.valueOf(products.size() + 1));
-    newProduct.put("name", productForm.getName());
-    newProduct.put("description", "Best " + productForm.getName());
-    newProduct.put("price", "$" + productForm.getPrice());
-
-    products.add(newProduct);
-
-    model.addAttribute("title", "Product Created");
-    model.addAttribute("subtitle", "The product has been created successfully");
-    model.addAttribute("product", newProduct);
-
-    return "product/created";
-    }
-};
\ No newline at end of file
+package com.docencia.tutorial05.controllers;
+
+import com.docencia.tutorial05.cache.RenderedPageCache;
+import com.docencia.tutorial05.models.Product;
+import com.docencia.tutorial05.models.ProductPage;
+import com.docencia.tutorial05.repositories.ProductRepository;
+import com.docencia.tutorial05.repositories.ProductSort;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+@Controller
+public class ProductController {
+
+    private static final int SEARCH_LIMIT = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductRepository productRepository;
+    private final RenderedPageCache pageCache;
+
+    public ProductController(ProductRepository productRepository, RenderedPageCache pageCache) {
+        this.productRepository = productRepository;
+        this.pageCache = pageCache;
+    }
+
+    @GetMapping("/products")
+    public String index(@RequestParam(required = false) Double minPrice,
+                        @RequestParam(required = false) Double maxPrice,
+                        @RequestParam(required = false) String sort,
+                        @RequestParam(required = false) Integer page,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "12") int size,
+                        Model model) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        model.addAttribute("title", "Products - Online Store");
+        model.addAttribute("subtitle", "List of products");
+        model.addAttribute("minPrice", minPrice);
+        model.addAttribute("maxPrice", maxPrice);
+        model.addAttribute("sort", sort);
+
+        // Filtering or sorting by price is served by the price index, without parsing any product
+        Long minCents = minPrice != null ? Product.toCents(minPrice) : null;
+        Long maxCents = maxPrice != null ? Product.toCents(maxPrice) : null;
+        ProductSort productSort = ProductSort.fromParam(sort, minPrice != null || maxPrice != null);
+
+        UriComponentsBuilder listing = UriComponentsBuilder.fromPath("/products")
+                .queryParamIfPresent("minPrice", Optional.ofNullable(minPrice))
+                .queryParamIfPresent("maxPrice", Optional.ofNullable(maxPrice))
+                .queryParamIfPresent("sort", Optional.ofNullable(sort))
+                .queryParam("size", pageSize);
+        String previousUrl = null;
+        String nextUrl = null;
+
+        ProductPage productPage;
+        if (page != null) {
+            int pageNumber = Math.max(page, 1);
+            productPage = productRepository.findPage(minCents, maxCents, productSort, pageNumber, pageSize);
+            if (productPage.hasPrevious()) {
+                previousUrl = listing.cloneBuilder().queryParam("page", pageNumber - 1).toUriString();
+            }
+            if (productPage.hasNext()) {
+                nextUrl = listing.cloneBuilder().queryParam("page", pageNumber + 1).toUriString();
+            }
+        } else {
+            // Keyset pagination: the cursor is an opaque token holding the direction and the anchor product id
+            String decoded = decodeCursor(cursor);
+            boolean before = decoded != null && decoded.charAt(0) == 'b';
+            Long anchorId = decoded != null ? Long.valueOf(decoded.substring(2)) : null;
+            productPage = productRepository.findSlice(minCents, maxCents, productSort, anchorId, before, pageSize);
+            if (productPage.hasPrevious()) {
+                previousUrl = listing.cloneBuilder()
+                        .queryParam("cursor", encodeCursor("b:" + productPage.first().getId())).toUriString();
+            }
+            if (productPage.hasNext()) {
+                nextUrl = listing.cloneBuilder()
+                        .queryParam("cursor", encodeCursor("a:" + productPage.last().getId())).toUriString();
+            }
+        }
+
+        model.addAttribute("products", productPage.getProducts());
+        model.addAttribute("previousUrl", previousUrl);
+        model.addAttribute("nextUrl", nextUrl);
+        return "product/index";
+    }
+
+    @GetMapping("/products/search")
+    public String search(@RequestParam(name = "q", defaultValue = "") String q, Model model) {
+        model.addAttribute("title", "Search - Online Store");
+        model.addAttribute("subtitle", "Results for \"" + q + "\"");
+        model.addAttribute("q", q);
+        model.addAttribute("products", productRepository.search(q, SEARCH_LIMIT));
+        return "product/index";
+    }
+
+    @GetMapping("/products/{id}")
+    public String show(@PathVariable String id, Model model) {
+        long productId;
+
+        try {
+        productId = Long.parseLong(id);
+        }catch (NumberFormatException e) {
+        return "redirect:/";
+        }
+
+    Optional<Product> found = productRepository.findById(productId);
+    if (found.isEmpty()) {
+        return "redirect:/";
+    }
+
+        Product product = found.get();
+
+    model.addAttribute("title", product.getName() + " - Online Store");
+    model.addAttribute("subtitle", product.getName() + " - Product Information");
+    model.addAttribute("product", product);
+
+    return "product/show";
+
+    }
+
+    @GetMapping("/products/create")
+        public String create(Model model) {
+            model.addAttribute("title", "Create Product");
+            model.addAttribute("productForm", new ProductForm());
+            return "product/create";
+    }
+
+    @PostMapping("/products/save")
+    public String save(@Valid @ModelAttribute("productForm") ProductForm productForm,
+                   BindingResult result, Model model) {
+    if (result.hasErrors()) {
+        model.addAttribute("title", "Create Product");
+        return "product/create";
+    }
+
+    Product newProduct = productRepository.save(
+            productForm.getName(),
+            "Best " + productForm.getName(),
+            Product.toCents(productForm.getPrice()));
+    pageCache.invalidateProduct(newProduct.getId());
+
+    model.addAttribute("title", "Product Created");
+    model.addAttribute("subtitle", "The product has been created successfully");
+    model.addAttribute("product", newProduct);
+
+    return "product/created";
+    }
+
+    private static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.matches("[ab]:\\d{1,18}")) {
+                return value;
+            }
+        } catch (IllegalArgumentException e) {
+            // Malformed cursors fall back to the first page
+        }
+        return null;
+    }
+};
@@ -0,0 +1,38 @@
+package com.docencia.tutorial05.controllers;
+
+import com.docencia.tutorial05.imports.ImportSummary;
+import com.docencia.tutorial05.imports.ProductImporter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductImportController {
+
+    private final ProductImporter productImporter;
+
+    public ProductImportController(ProductImporter productImporter) {
+        this.productImporter = productImporter;
+    }
+
+    // The request body is read as a stream, never bound to a collection
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ImportSummary importNdjson(HttpServletRequest request) throws IOException {
+        return productImporter.importNdjson(request.getInputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = "application/json")
+    public ImportSummary importJson(HttpServletRequest request) throws IOException {
+        return productImporter.importJsonArray(request.getInputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportSummary importCsv(HttpServletRequest request) throws IOException {
+        return productImporter.importCsv(request.getInputStream());
+    }
+}
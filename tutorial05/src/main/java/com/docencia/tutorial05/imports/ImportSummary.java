@@ -0,0 +1,13 @@
+package com.docencia.tutorial05.imports;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Only the first errors are reported, so a bad feed cannot grow the response without bound.
+ */
+public record ImportSummary(long received, long imported, long rejected, List<ImportError> errors,
+                            boolean errorsTruncated) {
+
+    public record ImportError(long line, String message) {
+    }
+}
@@ -0,0 +1,269 @@
+package com.docencia.tutorial05.imports;
+
+import com.docencia.tutorial05.cache.RenderedPageCache;
+import com.docencia.tutorial05.controllers.ProductForm;
+import com.docencia.tutorial05.models.Product;
+import com.docencia.tutorial05.models.ProductDraft;
+import com.docencia.tutorial05.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON, JSON array or CSV product feeds into the catalog.
+ * Records are read one at a time, validated with the {@link ProductForm} constraints
+ * and saved in batches, so the payload is never held in memory.
+ */
+@Component
+public class ProductImporter {
+
+    private final ProductRepository productRepository;
+    private final RenderedPageCache pageCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader formReader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImporter(ProductRepository productRepository,
+                           RenderedPageCache pageCache,
+                           Validator validator,
+                           ObjectMapper objectMapper,
+                           @Value("${app.import.batch-size:1000}") int batchSize,
+                           @Value("${app.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.pageCache = pageCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.formReader = objectMapper.readerFor(ProductForm.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportSummary importNdjson(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode record = objectMapper.readTree(line);
+                if (!record.isObject()) {
+                    batch.reject(lineNumber, "Expected a product object but found " + describe(record.asToken()));
+                    continue;
+                }
+                batch.accept(lineNumber, formReader.treeToValue(record, ProductForm.class));
+            } catch (JsonProcessingException e) {
+                batch.reject(lineNumber, "Malformed record: " + e.getOriginalMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    public ImportSummary importJsonArray(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                batch.reject(1, "Expected a JSON array of products");
+                return batch.finish();
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                long lineNumber = parser.currentLocation().getLineNr();
+                if (token == null) {
+                    batch.reject(lineNumber, "Malformed JSON: the array is not closed");
+                    return batch.finish();
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    // Skip the whole element (a nested array included) and go on with the next one
+                    parser.skipChildren();
+                    batch.reject(lineNumber, "Expected a product object but found " + describe(token));
+                    continue;
+                }
+                // Only the current element is materialized
+                JsonNode record = objectMapper.readTree(parser);
+                try {
+                    batch.accept(lineNumber, formReader.treeToValue(record, ProductForm.class));
+                } catch (JsonProcessingException e) {
+                    batch.reject(lineNumber, "Malformed record: " + e.getOriginalMessage());
+                }
+            }
+            if (parser.nextToken() != null) {
+                batch.reject(parser.currentLocation().getLineNr(), "Malformed JSON: unexpected content after the array");
+            }
+        } catch (JsonProcessingException e) {
+            // A syntax error leaves the stream unreadable, keep what was imported so far
+            batch.reject(e.getLocation() != null ? e.getLocation().getLineNr() : 0,
+                    "Malformed JSON: " + e.getOriginalMessage());
+        }
+        return batch.finish();
+    }
+
+    /**
+     * CSV with a header row naming at least the {@code name} and {@code price} columns.
+     */
+    public ImportSummary importCsv(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        List<String> columns = header != null ? splitCsv(header) : List.of();
+        int nameColumn = indexOf(columns, "name");
+        int priceColumn = indexOf(columns, "price");
+        if (nameColumn < 0 || priceColumn < 0) {
+            batch.reject(1, "The header must contain the name and price columns");
+            return batch.finish();
+        }
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitCsv(line);
+            if (fields.size() <= Math.max(nameColumn, priceColumn)) {
+                batch.reject(lineNumber, "Expected " + columns.size() + " columns but found " + fields.size());
+                continue;
+            }
+            ProductForm form = new ProductForm();
+            form.setName(fields.get(nameColumn));
+            String price = fields.get(priceColumn).trim();
+            if (!price.isEmpty()) {
+                try {
+                    form.setPrice(Double.valueOf(price));
+                } catch (NumberFormatException e) {
+                    batch.reject(lineNumber, "The price must be a number");
+                    continue;
+                }
+            }
+            batch.accept(lineNumber, form);
+        }
+        return batch.finish();
+    }
+
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_ARRAY -> "an array";
+            case VALUE_STRING -> "a string";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "a number";
+            case VALUE_TRUE, VALUE_FALSE -> "a boolean";
+            case VALUE_NULL -> "null";
+            default -> token.name();
+        };
+    }
+
+    private static int indexOf(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Quoted fields may contain commas and doubled quotes, but not line breaks
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private final class Batch {
+
+        private List<ProductDraft> pending = new ArrayList<>(batchSize);
+        private final List<ImportSummary.ImportError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        void accept(long line, ProductForm form) {
+            received++;
+            Set<ConstraintViolation<ProductForm>> violations = validator.validate(form);
+            if (!violations.isEmpty()) {
+                rejected++;
+                report(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            pending.add(new ProductDraft(form.getName(), "Best " + form.getName(), Product.toCents(form.getPrice())));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            received++;
+            rejected++;
+            report(line, message);
+        }
+
+        ImportSummary finish() {
+            flush();
+            return new ImportSummary(received, imported, rejected, errors, rejected > errors.size());
+        }
+
+        private void report(long line, String message) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportSummary.ImportError(line, message));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            imported += productRepository.saveAll(pending).size();
+            pending = new ArrayList<>(batchSize);
+            pageCache.invalidateListings();
+        }
+    }
+}
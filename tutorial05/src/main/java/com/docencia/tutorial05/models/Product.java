@@ -0,0 +1,48 @@
+package com.docencia.tutorial05.models;
+
+public final class Product {
+
+    private final long id;
+    private final String name;
+    private final String description;
+    private final long priceCents;
+    private final String price;
+
+    public Product(long id, String name, String description, long priceCents) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.priceCents = priceCents;
+        // The display price is formatted once here instead of on every request
+        this.price = formatPrice(priceCents);
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static String formatPrice(long cents) {
+        long fraction = cents % 100;
+        return "$" + (cents / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+}
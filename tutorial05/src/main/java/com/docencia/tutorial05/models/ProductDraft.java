@@ -0,0 +1,7 @@
+package com.docencia.tutorial05.models;
+
+/**
+ * A product that has not been given an id yet.
+ */
+public record ProductDraft(String name, String description, long priceCents) {
+}
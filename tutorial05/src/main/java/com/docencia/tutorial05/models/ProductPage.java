@@ -0,0 +1,36 @@
+package com.docencia.tutorial05.models;
+
+import java.util.List;
+
+public final class ProductPage {
+
+    private final List<Product> products;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public ProductPage(List<Product> products, boolean hasPrevious, boolean hasNext) {
+        this.products = products;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public Product first() {
+        return products.get(0);
+    }
+
+    public Product last() {
+        return products.get(products.size() - 1);
+    }
+}
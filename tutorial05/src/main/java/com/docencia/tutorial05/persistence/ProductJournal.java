@@ -0,0 +1,461 @@
+package com.docencia.tutorial05.persistence;
+
+import com.docencia.tutorial05.models.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of created products.
+ *
+ * <p>The log is split in numbered segments ({@code log-N.bin}). Appends are written to the active segment
+ * and made durable by a flusher thread that fsyncs once for every group of pending writes, so concurrent
+ * saves share a single {@code force()}. When a segment reaches {@code snapshot-every} records it is sealed
+ * and compacted in the background, together with the previous snapshot, into {@code snapshot-N.bin}.
+ * A snapshot numbered N holds every record of the segments below N, so recovery loads the newest snapshot
+ * and replays only the segments from N on.</p>
+ *
+ * <p>Each record is framed as {@code [int length][int crc32][payload]}; a torn or corrupt tail found
+ * during recovery is truncated. Strings in the payload are written as {@code [int length][UTF-8 bytes]}.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.catalog.persistence", name = "enabled", havingValue = "true")
+public class ProductJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductJournal.class);
+    private static final Pattern FILE_NAME = Pattern.compile("(log|snapshot)-(\\d+)\\.bin");
+    // Larger lengths can only come from a corrupt frame
+    static final int MAX_RECORD_BYTES = 1 << 26;
+
+    private final Path directory;
+    private final long groupCommitWindowMillis;
+    private final int snapshotEvery;
+
+    private final Object writeLock = new Object();
+    private final Object durableMonitor = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread flusher;
+
+    // Guarded by writeLock
+    private FileChannel channel;
+    private long activeSegment;
+    private int recordsInSegment;
+    // Only written under writeLock, volatile so the flusher can poll it without taking the lock
+    private volatile long written;
+
+    // Guarded by durableMonitor
+    private long durable;
+    private IOException failure;
+    private boolean running = true;
+    // Set once close() has forced every accepted write to disk
+    private boolean closed;
+
+    public ProductJournal(@Value("${app.catalog.persistence.directory:data/catalog}") Path directory,
+                          @Value("${app.catalog.persistence.group-commit-window-ms:2}") long groupCommitWindowMillis,
+                          @Value("${app.catalog.persistence.snapshot-every:100000}") int snapshotEvery) throws IOException {
+        this.directory = directory;
+        this.groupCommitWindowMillis = groupCommitWindowMillis;
+        this.snapshotEvery = snapshotEvery;
+        Files.createDirectories(directory);
+        this.flusher = new Thread(this::flushLoop, "product-journal-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Loads the latest snapshot, replays the log segments written after it and opens the journal for appends.
+     * Must be called once, before the first {@link #append}.
+     */
+    public List<Product> recover() throws IOException {
+        long snapshot = -1;
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    if (file.getFileName().toString().endsWith(".tmp")) {
+                        Files.deleteIfExists(file);
+                    }
+                    continue;
+                }
+                long number = Long.parseLong(matcher.group(2));
+                if (matcher.group(1).equals("snapshot")) {
+                    snapshot = Math.max(snapshot, number);
+                } else {
+                    segments.add(number);
+                }
+            }
+        }
+        segments.sort(null);
+
+        List<Product> products = new ArrayList<>();
+        if (snapshot >= 0) {
+            read(snapshotFile(snapshot), products);
+        }
+        long firstLive = Math.max(snapshot, 0);
+        for (long segment : segments) {
+            if (segment < firstLive) {
+                Files.deleteIfExists(segmentFile(segment));
+                continue;
+            }
+            long validLength = read(segmentFile(segment), products);
+            try (FileChannel file = FileChannel.open(segmentFile(segment), StandardOpenOption.WRITE)) {
+                if (file.size() > validLength) {
+                    log.warn("Truncating torn tail of {} at {} bytes", segmentFile(segment), validLength);
+                    file.truncate(validLength);
+                    file.force(true);
+                }
+            }
+        }
+        deleteSnapshotsBefore(snapshot);
+
+        long active = segments.isEmpty() ? firstLive : Math.max(firstLive, segments.get(segments.size() - 1));
+        synchronized (writeLock) {
+            openSegment(active);
+        }
+        flusher.start();
+        log.info("Recovered {} products from {}", products.size(), directory.toAbsolutePath());
+        return products;
+    }
+
+    /**
+     * Writes the product to the log and blocks until it has been fsynced.
+     */
+    public void append(Product product) {
+        append(List.of(product));
+    }
+
+    /**
+     * Writes all the products to the log and blocks until they have been fsynced together.
+     */
+    public void append(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * products.size());
+        try {
+            for (Product product : products) {
+                writeRecord(bytes, product);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long ticket;
+        synchronized (writeLock) {
+            if (channel == null || !channel.isOpen()) {
+                throw new IllegalStateException("Product journal is closed");
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written += products.size();
+                recordsInSegment += products.size();
+                ticket = written;
+                if (recordsInSegment >= snapshotEvery) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        awaitDurable(ticket);
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        synchronized (durableMonitor) {
+            running = false;
+            durableMonitor.notifyAll();
+        }
+        flusher.join();
+        synchronized (writeLock) {
+            // Appends still waiting for the flusher are made durable here and return normally
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+                markDurable(written);
+            }
+        }
+        synchronized (durableMonitor) {
+            closed = true;
+            durableMonitor.notifyAll();
+        }
+        compactor.shutdown();
+        compactor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // ------------------ group commit ------------------
+
+    private void awaitDurable(long ticket) {
+        synchronized (durableMonitor) {
+            durableMonitor.notifyAll();
+            while (durable < ticket) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Product journal is not writable", failure);
+                }
+                if (closed) {
+                    throw new IllegalStateException("Product journal is closed");
+                }
+                try {
+                    durableMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the product journal", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            FileChannel current;
+            synchronized (durableMonitor) {
+                try {
+                    while (running && pending() == 0) {
+                        durableMonitor.wait();
+                    }
+                    if (!running) {
+                        return;
+                    }
+                    // Let concurrent writers join this fsync
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommitWindowMillis);
+                    long remaining;
+                    while (running && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(durableMonitor, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            synchronized (writeLock) {
+                target = written;
+                current = channel;
+            }
+            try {
+                current.force(false);
+                markDurable(target);
+            } catch (ClosedChannelException e) {
+                // The segment was rotated meanwhile, and rotation forced it before closing
+            } catch (IOException e) {
+                log.error("Could not fsync the product journal", e);
+                synchronized (durableMonitor) {
+                    failure = e;
+                    durableMonitor.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private long pending() {
+        return written - durable;
+    }
+
+    private void markDurable(long ticket) {
+        synchronized (durableMonitor) {
+            if (ticket > durable) {
+                durable = ticket;
+            }
+            durableMonitor.notifyAll();
+        }
+    }
+
+    // ------------------ segments and snapshots ------------------
+
+    private void openSegment(long segment) throws IOException {
+        channel = FileChannel.open(segmentFile(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSegment = segment;
+        recordsInSegment = 0;
+    }
+
+    private void rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+        markDurable(written);
+        long sealed = activeSegment;
+        openSegment(sealed + 1);
+        compactor.execute(() -> compact(sealed));
+    }
+
+    /**
+     * Merges the newest snapshot and every segment up to {@code sealed} into {@code snapshot-(sealed + 1)}.
+     */
+    private void compact(long sealed) {
+        try {
+            long previous = -1;
+            for (long candidate = sealed; candidate >= 0; candidate--) {
+                if (Files.exists(snapshotFile(candidate))) {
+                    previous = candidate;
+                    break;
+                }
+            }
+            List<Product> products = new ArrayList<>();
+            if (previous >= 0) {
+                read(snapshotFile(previous), products);
+            }
+            for (long segment = Math.max(previous, 0); segment <= sealed; segment++) {
+                if (Files.exists(segmentFile(segment))) {
+                    read(segmentFile(segment), products);
+                }
+            }
+
+            Path target = snapshotFile(sealed + 1);
+            Path temporary = directory.resolve(target.getFileName() + ".tmp");
+            try (FileChannel file = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+                for (Product product : products) {
+                    writeRecord(bytes, product);
+                    if (bytes.size() >= 1 << 16) {
+                        writeFully(file, bytes);
+                    }
+                }
+                writeFully(file, bytes);
+                file.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long segment = Math.max(previous, 0); segment <= sealed; segment++) {
+                Files.deleteIfExists(segmentFile(segment));
+            }
+            deleteSnapshotsBefore(sealed + 1);
+            log.info("Compacted product journal into {} ({} products)", target.getFileName(), products.size());
+        } catch (IOException e) {
+            // The sealed segments are kept, so recovery still sees every record
+            log.error("Could not compact the product journal", e);
+        }
+    }
+
+    private void deleteSnapshotsBefore(long snapshot) throws IOException {
+        for (long older = snapshot - 1; older >= 0; older--) {
+            Files.deleteIfExists(snapshotFile(older));
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve("log-" + segment + ".bin");
+    }
+
+    private Path snapshotFile(long snapshot) {
+        return directory.resolve("snapshot-" + snapshot + ".bin");
+    }
+
+    // ------------------ record format ------------------
+
+    private static void writeRecord(ByteArrayOutputStream target, Product product) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(48);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeLong(product.getId());
+        out.writeLong(product.getPriceCents());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        if (payload.size() > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Product " + product.getId() + " is too large for the journal");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.toByteArray());
+        DataOutputStream frame = new DataOutputStream(target);
+        frame.writeInt(payload.size());
+        frame.writeInt((int) crc.getValue());
+        payload.writeTo(frame);
+    }
+
+    /**
+     * Appends the valid records of the file to {@code products} and returns the length of the valid prefix.
+     */
+    private static long read(Path file, List<Product> products) throws IOException {
+        long valid = 0;
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             DataInputStream in = new DataInputStream(stream)) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return valid;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    return valid;
+                }
+                byte[] payload = new byte[length];
+                int expectedCrc;
+                try {
+                    expectedCrc = in.readInt();
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    return valid;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    return valid;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                long id = record.readLong();
+                long priceCents = record.readLong();
+                products.add(new Product(id, readString(record), readString(record), priceCents));
+                valid += 8 + length;
+            }
+        }
+    }
+
+    // DataOutputStream.writeUTF is limited to 65535 encoded bytes
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel file, ByteArrayOutputStream bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+        bytes.reset();
+    }
+}
@@ -0,0 +1,199 @@
+package com.docencia.tutorial05.repositories;
+
+import com.docencia.tutorial05.models.Product;
+import com.docencia.tutorial05.models.ProductDraft;
+import com.docencia.tutorial05.models.ProductPage;
+import com.docencia.tutorial05.persistence.ProductJournal;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Repository
+public class ProductRepository {
+
+    // Lock-free reads, ordered by id so the listing keeps insertion order
+    private final ConcurrentNavigableMap<Long, Product> products = new ConcurrentSkipListMap<>();
+    // Secondary index ordered by price (ties broken by id) for range queries
+    private final ConcurrentNavigableMap<PriceKey, Product> priceIndex = new ConcurrentSkipListMap<>(
+            Comparator.comparingLong(PriceKey::cents).thenComparingLong(PriceKey::id));
+    private final AtomicLong sequence = new AtomicLong();
+    private final ProductSearchIndex searchIndex;
+    // Only present when app.catalog.persistence.enabled=true
+    private final ProductJournal journal;
+
+    public ProductRepository(ProductSearchIndex searchIndex, ObjectProvider<ProductJournal> journalProvider) {
+        this.searchIndex = searchIndex;
+        this.journal = journalProvider.getIfAvailable();
+
+        if (journal != null) {
+            try {
+                journal.recover().forEach(this::index);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not recover the product catalog", e);
+            }
+        }
+        if (products.isEmpty()) {
+            save("TV", "Best TV", 99999);
+            save("iPhone", "Best iPhone", 89999);
+            save("Chromecast", "Best Chromecast", 3500);
+            save("Glasses", "Best Glasses", 12050);
+        }
+    }
+
+    public Product save(String name, String description, long priceCents) {
+        Product product = new Product(sequence.incrementAndGet(), name, description, priceCents);
+        // The product only becomes visible once it is durable
+        if (journal != null) {
+            journal.append(product);
+        }
+        index(product);
+        return product;
+    }
+
+    /**
+     * Saves a batch of products with a single journal fsync.
+     */
+    public List<Product> saveAll(List<ProductDraft> drafts) {
+        List<Product> saved = new ArrayList<>(drafts.size());
+        for (ProductDraft draft : drafts) {
+            saved.add(new Product(sequence.incrementAndGet(), draft.name(), draft.description(), draft.priceCents()));
+        }
+        if (journal != null) {
+            journal.append(saved);
+        }
+        saved.forEach(this::index);
+        return saved;
+    }
+
+    public Optional<Product> findById(long id) {
+        return Optional.ofNullable(products.get(id));
+    }
+
+    public Collection<Product> findAll() {
+        return products.values();
+    }
+
+    /**
+     * Products priced between the given bounds (inclusive, in cents), ordered by price.
+     * A null bound leaves that side of the range open.
+     */
+    public Collection<Product> findByPriceRange(Long minCents, Long maxCents, boolean descending) {
+        return priceRange(minCents, maxCents, descending).values();
+    }
+
+    /**
+     * Offset pagination ({@code page} starts at 1). Skipping costs O(offset),
+     * so deep pages should prefer {@link #findSlice}.
+     */
+    public ProductPage findPage(Long minCents, Long maxCents, ProductSort sort, int page, int size) {
+        Collection<Product> view = sort == ProductSort.ID
+                ? products.values()
+                : findByPriceRange(minCents, maxCents, sort == ProductSort.PRICE_DESC);
+        List<Product> items = view.stream().skip((long) (page - 1) * size).limit(size + 1L).toList();
+        boolean hasNext = items.size() > size;
+        return new ProductPage(hasNext ? items.subList(0, size) : items, page > 1, hasNext);
+    }
+
+    /**
+     * Keyset pagination: the {@code size} products right after (or right before) the anchor product
+     * in the requested order. A missing anchor starts from the beginning of the listing.
+     */
+    public ProductPage findSlice(Long minCents, Long maxCents, ProductSort sort, Long anchorId, boolean before, int size) {
+        Product anchor = anchorId != null ? products.get(anchorId) : null;
+        if (sort == ProductSort.ID) {
+            return slice(products, anchor != null ? anchor.getId() : null, before, size, Product::getId);
+        }
+        return slice(priceRange(minCents, maxCents, sort == ProductSort.PRICE_DESC),
+                anchor != null ? PriceKey.of(anchor) : null, before, size, PriceKey::of);
+    }
+
+    public List<Product> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(ProductSearchIndex.tokenize(query));
+        boolean verify = terms.stream().anyMatch(term -> term.length() > ProductSearchIndex.MAX_PREFIX);
+
+        List<Product> result = new ArrayList<>();
+        for (Long id : searchIndex.search(terms, verify ? Integer.MAX_VALUE : limit)) {
+            Product product = products.get(id);
+            if (product != null && (!verify || searchIndex.matches(product, terms))) {
+                result.add(product);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public int count() {
+        return products.size();
+    }
+
+    private void index(Product product) {
+        products.put(product.getId(), product);
+        priceIndex.put(PriceKey.of(product), product);
+        searchIndex.add(product);
+        sequence.accumulateAndGet(product.getId(), Math::max);
+    }
+
+    private NavigableMap<PriceKey, Product> priceRange(Long minCents, Long maxCents, boolean descending) {
+        PriceKey from = new PriceKey(minCents != null ? minCents : Long.MIN_VALUE, Long.MIN_VALUE);
+        PriceKey to = new PriceKey(maxCents != null ? maxCents : Long.MAX_VALUE, Long.MAX_VALUE);
+        if (from.cents() > to.cents()) {
+            return Collections.emptyNavigableMap();
+        }
+        ConcurrentNavigableMap<PriceKey, Product> range = priceIndex.subMap(from, true, to, true);
+        return descending ? range.descendingMap() : range;
+    }
+
+    private static <K> ProductPage slice(NavigableMap<K, Product> view, K anchor, boolean before, int size,
+                                         Function<Product, K> key) {
+        NavigableMap<K, Product> side;
+        try {
+            side = anchor == null ? view
+                    : before ? view.headMap(anchor, false).descendingMap()
+                    : view.tailMap(anchor, false);
+        } catch (IllegalArgumentException e) {
+            // The anchor lies outside the requested price range: start from the beginning
+            side = view;
+            anchor = null;
+        }
+
+        List<Product> items = new ArrayList<>(size);
+        for (Product product : side.values()) {
+            if (items.size() == size) {
+                break;
+            }
+            items.add(product);
+        }
+        if (items.isEmpty()) {
+            return new ProductPage(items, false, false);
+        }
+        if (anchor != null && before) {
+            Collections.reverse(items);
+        }
+
+        boolean hasPrevious = view.lowerKey(key.apply(items.get(0))) != null;
+        boolean hasNext = view.higherKey(key.apply(items.get(items.size() - 1))) != null;
+        return new ProductPage(items, hasPrevious, hasNext);
+    }
+
+    private record PriceKey(long cents, long id) {
+
+        static PriceKey of(Product product) {
+            return new PriceKey(product.getPriceCents(), product.getId());
+        }
+    }
+}
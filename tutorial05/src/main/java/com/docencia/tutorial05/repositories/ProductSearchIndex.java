@@ -0,0 +1,117 @@
+package com.docencia.tutorial05.repositories;
+
+import com.docencia.tutorial05.models.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Inverted index over product name and description.
+ * Every token is stored together with its prefixes (up to {@link #MAX_PREFIX} characters),
+ * so a prefix query is a single map lookup instead of a scan over the catalog.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final int MAX_PREFIX = 16;
+
+    private final ConcurrentMap<String, Posting> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the products matching one prefix. {@link ConcurrentSkipListSet#size()} walks the whole
+     * set, so the size used to order intersections is kept alongside it.
+     */
+    private static final class Posting {
+
+        private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Long id) {
+            if (ids.add(id)) {
+                size.incrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+
+    public void add(Product product) {
+        for (String token : tokenize(product.getName() + " " + product.getDescription())) {
+            int max = Math.min(token.length(), MAX_PREFIX);
+            for (int length = 1; length <= max; length++) {
+                postings.computeIfAbsent(token.substring(0, length), key -> new Posting()).add(product.getId());
+            }
+        }
+    }
+
+    /**
+     * Ids (ascending) of the products having, for every term of the query, a token that starts with it.
+     * Terms longer than {@link #MAX_PREFIX} are only matched on their first characters;
+     * callers verify those candidates with {@link #matches(Product, List)}.
+     */
+    public List<Long> search(List<String> terms, int limit) {
+        List<Posting> sets = new ArrayList<>();
+        for (String term : terms) {
+            Posting posting = postings.get(term.length() > MAX_PREFIX ? term.substring(0, MAX_PREFIX) : term);
+            if (posting == null) {
+                return List.of();
+            }
+            sets.add(posting);
+        }
+        if (sets.isEmpty()) {
+            return List.of();
+        }
+
+        // Drive the intersection from the smallest posting list
+        sets.sort(Comparator.comparingInt(Posting::size));
+        List<Long> result = new ArrayList<>();
+        Iterator<Long> candidates = sets.get(0).ids.iterator();
+        while (candidates.hasNext() && result.size() < limit) {
+            Long id = candidates.next();
+            boolean inAll = true;
+            for (int i = 1; i < sets.size() && inAll; i++) {
+                inAll = sets.get(i).ids.contains(id);
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public boolean matches(Product product, List<String> terms) {
+        Set<String> tokens = tokenize(product.getName() + " " + product.getDescription());
+        for (String term : terms) {
+            if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
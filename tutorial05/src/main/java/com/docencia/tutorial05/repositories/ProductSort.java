@@ -0,0 +1,21 @@
+package com.docencia.tutorial05.repositories;
+
+public enum ProductSort {
+    ID,
+    PRICE_ASC,
+    PRICE_DESC;
+
+    /**
+     * Maps the {@code sort} request parameter. Price filters are served by the price index,
+     * so a filtered listing without an explicit sort is ordered by ascending price.
+     */
+    public static ProductSort fromParam(String sort, boolean priceFiltered) {
+        if ("price_desc".equals(sort)) {
+            return PRICE_DESC;
+        }
+        if ("price_asc".equals(sort) || priceFiltered) {
+            return PRICE_ASC;
+        }
+        return ID;
+    }
+}
@@ -0,0 +1,185 @@
+package com.docencia.tutorial05.imports;
+
+import com.docencia.tutorial05.cache.RenderedPageCache;
+import com.docencia.tutorial05.models.Product;
+import com.docencia.tutorial05.models.ProductDraft;
+import com.docencia.tutorial05.persistence.ProductJournal;
+import com.docencia.tutorial05.repositories.ProductRepository;
+import com.docencia.tutorial05.repositories.ProductSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductImporterTests {
+
+    private static final int BATCH_SIZE = 2;
+
+    private final List<Integer> savedBatches = new ArrayList<>();
+    private ProductRepository repository;
+    private ProductImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ProductRepository(new ProductSearchIndex(),
+                new StaticListableBeanFactory().getBeanProvider(ProductJournal.class)) {
+            @Override
+            public List<Product> saveAll(List<ProductDraft> drafts) {
+                savedBatches.add(drafts.size());
+                return super.saveAll(drafts);
+            }
+        };
+        importer = new ProductImporter(repository, new RenderedPageCache(16, 1024),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), BATCH_SIZE, 100);
+    }
+
+    @Test
+    void ndjsonImportsValidLinesAndSkipsBlankOnes() throws Exception {
+        int before = repository.count();
+        ImportSummary summary = importer.importNdjson(body("""
+                {"name":"Lamp","price":19.99}
+
+                {"name":"Desk","price":150,"color":"oak"}
+                """));
+
+        assertThat(summary.received()).isEqualTo(2);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.rejected()).isZero();
+        assertThat(repository.count()).isEqualTo(before + 2);
+        assertThat(repository.search("lamp", 10)).extracting(Product::getPriceCents).containsExactly(1999L);
+    }
+
+    @Test
+    void ndjsonRejectsMalformedAndNonObjectLinesOneByOne() throws Exception {
+        ImportSummary summary = importer.importNdjson(body("""
+                {"name":"Lamp","price":19.99}
+                null
+                [1,2]
+                "Desk"
+                {"name":"Chair",
+                {"name":"","price":-1}
+                {"name":"Sofa","price":300}
+                """));
+
+        assertThat(summary.received()).isEqualTo(7);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.rejected()).isEqualTo(5);
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::line).containsExactly(2L, 3L, 4L, 5L, 6L);
+        assertThat(summary.errors().get(0).message()).isEqualTo("Expected a product object but found null");
+        assertThat(summary.errors().get(1).message()).isEqualTo("Expected a product object but found an array");
+        assertThat(summary.errors().get(2).message()).isEqualTo("Expected a product object but found a string");
+        assertThat(summary.errors().get(3).message()).startsWith("Malformed record");
+        assertThat(summary.errors().get(4).message())
+                .isEqualTo("The price must be greater than zero; The product name is required");
+    }
+
+    @Test
+    void jsonArrayRejectsNonObjectElementsAndKeepsGoing() throws Exception {
+        ImportSummary summary = importer.importJsonArray(body("""
+                [
+                  {"name":"Lamp","price":19.99},
+                  [{"name":"Nested","price":1}],
+                  null,
+                  {"name":"Desk"},
+                  {"name":"Sofa","price":300}
+                ]
+                """));
+
+        assertThat(summary.received()).isEqualTo(5);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::message).containsExactly(
+                "Expected a product object but found an array",
+                "Expected a product object but found null",
+                "The price is required");
+        assertThat(repository.search("nested", 10)).isEmpty();
+    }
+
+    @Test
+    void jsonArrayKeepsWhatWasImportedBeforeASyntaxError() throws Exception {
+        ImportSummary summary = importer.importJsonArray(body("""
+                [{"name":"Lamp","price":19.99}, {"name": }]
+                """));
+
+        assertThat(summary.imported()).isEqualTo(1);
+        assertThat(summary.errors()).singleElement()
+                .satisfies(error -> assertThat(error.message()).startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void jsonArrayRequiresAnArray() throws Exception {
+        ImportSummary summary = importer.importJsonArray(body("{\"name\":\"Lamp\",\"price\":19.99}"));
+
+        assertThat(summary.imported()).isZero();
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::message)
+                .containsExactly("Expected a JSON array of products");
+    }
+
+    @Test
+    void csvMapsColumnsByHeaderAndHandlesQuotedFields() throws Exception {
+        ImportSummary summary = importer.importCsv(body("""
+                sku,price,name
+                1,19.99,"Lamp, brass"
+                2,abc,Desk
+                3,150
+                4,,Chair
+                5,300,"Sofa ""XL\"""
+                """));
+
+        assertThat(summary.received()).isEqualTo(5);
+        assertThat(summary.imported()).isEqualTo(2);
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::line).containsExactly(3L, 4L, 5L);
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::message).containsExactly(
+                "The price must be a number",
+                "Expected 3 columns but found 2",
+                "The price is required");
+        assertThat(repository.search("brass", 10)).extracting(Product::getName).containsExactly("Lamp, brass");
+        assertThat(repository.search("sofa", 10)).extracting(Product::getName).containsExactly("Sofa \"XL\"");
+    }
+
+    @Test
+    void csvRequiresNameAndPriceColumns() throws Exception {
+        ImportSummary summary = importer.importCsv(body("name,cost\nLamp,19.99\n"));
+
+        assertThat(summary.imported()).isZero();
+        assertThat(summary.errors()).extracting(ImportSummary.ImportError::message)
+                .containsExactly("The header must contain the name and price columns");
+    }
+
+    @Test
+    void recordsAreSavedInBatchesAndTheRemainderOnFinish() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            lines.append("{\"name\":\"Item").append(i).append("\",\"price\":").append(i).append("}\n");
+        }
+
+        ImportSummary summary = importer.importNdjson(body(lines.toString()));
+
+        assertThat(summary.imported()).isEqualTo(5);
+        assertThat(savedBatches).containsExactly(BATCH_SIZE, BATCH_SIZE, 1);
+    }
+
+    @Test
+    void onlyTheFirstErrorsAreReported() throws Exception {
+        importer = new ProductImporter(repository, new RenderedPageCache(16, 1024),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), BATCH_SIZE, 2);
+
+        ImportSummary summary = importer.importNdjson(body("null\nnull\nnull\n"));
+
+        assertThat(summary.rejected()).isEqualTo(3);
+        assertThat(summary.errors()).hasSize(2);
+        assertThat(summary.errorsTruncated()).isTrue();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
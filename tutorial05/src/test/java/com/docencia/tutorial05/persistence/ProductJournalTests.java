@@ -0,0 +1,143 @@
+package com.docencia.tutorial05.persistence;
+
+import com.docencia.tutorial05.models.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductJournalTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryDropsATruncatedLastRecord() throws Exception {
+        writeProducts(3);
+        Path segment = directory.resolve("log-0.bin");
+        long fullLength = Files.size(segment);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(fullLength - 5);
+        }
+
+        ProductJournal journal = open(100);
+        assertThat(ids(journal.recover())).containsExactly(1L, 2L);
+        // The torn tail is cut off, so the next append follows the last valid record
+        journal.append(product(3));
+        journal.close();
+
+        assertThat(ids(open(100).recover())).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void recoveryDropsACorruptLastRecord() throws Exception {
+        writeProducts(3);
+        Path segment = directory.resolve("log-0.bin");
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        ProductJournal journal = open(100);
+        assertThat(ids(journal.recover())).containsExactly(1L, 2L);
+        journal.close();
+        assertThat(Files.size(segment)).isLessThan(bytes.length);
+    }
+
+    @Test
+    void recoveryLoadsTheSnapshotAndReplaysLaterSegments() throws Exception {
+        ProductJournal journal = open(2);
+        journal.recover();
+        for (long id = 1; id <= 5; id++) {
+            journal.append(product(id));
+        }
+        // close() waits for the background compactions
+        journal.close();
+
+        assertThat(directory.resolve("snapshot-2.bin")).exists();
+        assertThat(directory.resolve("log-2.bin")).exists();
+        assertThat(directory.resolve("snapshot-1.bin")).doesNotExist();
+        assertThat(directory.resolve("log-0.bin")).doesNotExist();
+        assertThat(directory.resolve("log-1.bin")).doesNotExist();
+
+        assertThat(ids(open(2).recover())).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void closeCompletesAppendsWaitingForTheFlusher() throws Exception {
+        // A window long enough that only close() can make the appends durable
+        ProductJournal journal = new ProductJournal(directory, 60_000, 100);
+        journal.recover();
+
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> writers = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            long productId = id;
+            Thread writer = new Thread(() -> {
+                try {
+                    journal.append(product(productId));
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread writer : writers) {
+            while (writer.getState() != Thread.State.WAITING && writer.isAlive()) {
+                Thread.sleep(5);
+            }
+        }
+
+        journal.close();
+        for (Thread writer : writers) {
+            writer.join(10_000);
+        }
+
+        assertThat(failures).isEmpty();
+        assertThat(ids(open(100).recover())).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThatThrownBy(() -> journal.append(product(9))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void storesStringsLongerThan64Kilobytes() throws Exception {
+        String description = "ñ".repeat(100_000);
+        ProductJournal journal = open(100);
+        journal.recover();
+        journal.append(new Product(1, "Long", description, 999));
+        journal.close();
+
+        List<Product> recovered = open(100).recover();
+        assertThat(recovered).hasSize(1);
+        assertThat(recovered.get(0).getDescription()).isEqualTo(description);
+    }
+
+    private void writeProducts(int count) throws Exception {
+        ProductJournal journal = open(100);
+        journal.recover();
+        for (long id = 1; id <= count; id++) {
+            journal.append(product(id));
+        }
+        journal.close();
+    }
+
+    private ProductJournal open(int snapshotEvery) throws Exception {
+        return new ProductJournal(directory, 1, snapshotEvery);
+    }
+
+    private static Product product(long id) {
+        return new Product(id, "Product " + id, "Description " + id, 100 * id);
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}